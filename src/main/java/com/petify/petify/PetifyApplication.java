@@ -2,10 +2,12 @@ package com.petify.petify;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
 @SpringBootApplication
+@EnableScheduling
 public class PetifyApplication {
 
     public static void main(String[] args) {
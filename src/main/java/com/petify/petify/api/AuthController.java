@@ -1,25 +1,37 @@
 package com.petify.petify.api;
 
 import com.petify.petify.dto.AuthResponse;
+import com.petify.petify.dto.AuthenticatedUser;
+import com.petify.petify.dto.CursorPage;
 import com.petify.petify.dto.LoginRequest;
 import com.petify.petify.dto.SignUpRequest;
 import com.petify.petify.dto.UserDTO;
 import com.petify.petify.service.AuthService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private final AuthService authService;
+    private final Duration retryAfter;
+    private final int maxPageSize;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService,
+                          @Value("${petify.auth.password.retry-after:2s}") Duration retryAfter,
+                          @Value("${petify.users.max-page-size:1000}") int maxPageSize) {
         this.authService = authService;
+        this.retryAfter = retryAfter;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
@@ -27,10 +39,12 @@ public class AuthController {
      * POST /api/auth/signup
      */
     @PostMapping("/signup")
-    public ResponseEntity<AuthResponse> signUp(@RequestBody SignUpRequest request) {
+    public ResponseEntity<?> signUp(@RequestBody SignUpRequest request) {
         try {
             AuthResponse response = authService.signUp(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (RejectedExecutionException e) {
+            return hashingBusy();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                     .body(new AuthResponse(null, null, null, null, null,null));
@@ -45,6 +59,8 @@ public class AuthController {
     public ResponseEntity<?> login(@RequestBody LoginRequest request) {
         try {
             return ResponseEntity.ok(authService.login(request));
+        } catch (RejectedExecutionException e) {
+            return hashingBusy();
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of(
@@ -55,14 +71,38 @@ public class AuthController {
     }
 
     /**
-     * Get all users
-     * GET /api/auth/users
+     * Reissue the caller's token with their current user type
+     * POST /api/auth/refresh
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@AuthenticationPrincipal AuthenticatedUser caller) {
+        try {
+            return ResponseEntity.ok(authService.refresh(caller.userId()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // The password hashing queue is full; ask the client to come back instead of queueing more
+    private ResponseEntity<Map<String, String>> hashingBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())))
+                .body(Map.of("error", "Too many sign-in requests, try again shortly"));
+    }
+
+    /**
+     * Get all users, one page at a time
+     * GET /api/auth/users?after={nextCursorOfPreviousPage}&limit={pageSize}
+     * Response: {"items": [...], "nextCursor": "..."}, nextCursor null on the last page.
+     * Without limit the largest page size is used.
      */
     @GetMapping("/users")
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
+    public ResponseEntity<CursorPage<UserDTO>> getAllUsers(@RequestParam(required = false) Long after,
+                                                           @RequestParam(required = false) Integer limit) {
         try {
-            List<UserDTO> users = authService.getAllUsers();
-            return ResponseEntity.ok(users);
+            int pageSize = limit == null ? maxPageSize : Math.max(1, Math.min(limit, maxPageSize));
+            return ResponseEntity.ok(authService.getUsers(after, pageSize));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
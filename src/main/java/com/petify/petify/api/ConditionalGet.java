@@ -0,0 +1,55 @@
+package com.petify.petify.api;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * If-None-Match handling for reads tagged with CatalogVersions ETags, so an unchanged resource
+ * is answered with 304 before anything is loaded or serialized. Counts conditional outcomes per
+ * endpoint in petify.http.conditional{endpoint, result=not_modified|modified|unconditional}.
+ */
+@Component
+public class ConditionalGet {
+
+    private final MeterRegistry meterRegistry;
+
+    public ConditionalGet(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Whether the client already holds {@code etag}, given its If-None-Match header (may be null)
+     */
+    public boolean isNotModified(String endpoint, String ifNoneMatch, String etag) {
+        String result;
+        boolean notModified = false;
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            result = "unconditional";
+        } else {
+            notModified = matches(ifNoneMatch, etag);
+            result = notModified ? "not_modified" : "modified";
+        }
+        Counter.builder("petify.http.conditional")
+            .description("Reads answered 304 (not_modified), with a body despite If-None-Match (modified) or without it")
+            .tag("endpoint", endpoint)
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+        return notModified;
+    }
+
+    // If-None-Match uses the weak comparison: W/ prefixes are ignored
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,7 +1,9 @@
 package com.petify.petify.api;
 
+import com.petify.petify.dto.FavoriteBatchRequest;
 import com.petify.petify.dto.ListingDTO;
 import com.petify.petify.service.FavoritesService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,9 +16,12 @@ import java.util.Map;
 public class FavoritesController {
 
     private final FavoritesService favoritesService;
+    private final int maxBatchSize;
 
-    public FavoritesController(FavoritesService favoritesService) {
+    public FavoritesController(FavoritesService favoritesService,
+                               @Value("${petify.batch.max-ids:100}") int maxBatchSize) {
         this.favoritesService = favoritesService;
+        this.maxBatchSize = maxBatchSize;
     }
 
     @PostMapping("/{listingId}")
@@ -24,9 +29,10 @@ public class FavoritesController {
             @PathVariable Long listingId,
             @RequestHeader("X-User-Id") Long userId) {
         try {
-            favoritesService.addFavorite(userId, listingId);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                .body(Map.of("message", "Added to favorites"));
+            // The resulting state, so the client need not ask is-favorited afterwards
+            boolean added = favoritesService.addFavorite(userId, listingId);
+            return ResponseEntity.status(added ? HttpStatus.CREATED : HttpStatus.OK)
+                .body(Map.of("message", "Added to favorites", "listingId", listingId, "isFavorited", true));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(Map.of("error", e.getMessage()));
@@ -39,7 +45,7 @@ public class FavoritesController {
             @RequestHeader("X-User-Id") Long userId) {
         try {
             favoritesService.removeFavorite(userId, listingId);
-            return ResponseEntity.ok(Map.of("message", "Removed from favorites"));
+            return ResponseEntity.ok(Map.of("message", "Removed from favorites", "listingId", listingId, "isFavorited", false));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(Map.of("error", e.getMessage()));
@@ -60,4 +66,24 @@ public class FavoritesController {
         boolean isFavorited = favoritesService.isFavorited(userId, listingId);
         return ResponseEntity.ok(Map.of("isFavorited", isFavorited));
     }
+
+    /**
+     * Check favorite status of many listings at once, e.g. for a page of listing cards
+     * POST /api/favorites/is-favorited:batch
+     * Body: {"listingIds": [1, 2, 3]}; response: {"1": true, "2": false, "3": false}
+     */
+    @PostMapping("/is-favorited:batch")
+    public ResponseEntity<?> areFavorited(
+            @RequestBody FavoriteBatchRequest request,
+            @RequestHeader("X-User-Id") Long userId) {
+        List<Long> listingIds = request.getListingIds();
+        if (listingIds == null || listingIds.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "listingIds is required"));
+        }
+        if (listingIds.size() > maxBatchSize) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + maxBatchSize + " listingIds per request"));
+        }
+        return ResponseEntity.ok(favoritesService.areFavorited(userId, listingIds));
+    }
 }
@@ -2,9 +2,16 @@ package com.petify.petify.api;
 
 import com.petify.petify.dto.CreateListingRequest;
 import com.petify.petify.dto.ListingDTO;
+import com.petify.petify.dto.ListingDetailDTO;
+import com.petify.petify.dto.TrendingListingDTO;
+import com.petify.petify.service.CatalogVersions;
+import com.petify.petify.service.ListingDetailService;
 import com.petify.petify.service.ListingService;
+import com.petify.petify.service.TrendingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,9 +25,36 @@ public class ListingsController {
 
     private static final Logger logger = LoggerFactory.getLogger(ListingsController.class);
     private final ListingService listingService;
+    private final ListingDetailService listingDetailService;
+    private final CatalogVersions catalogVersions;
+    private final ConditionalGet conditionalGet;
+    private final TrendingService trendingService;
 
-    public ListingsController(ListingService listingService) {
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBatchSize;
+
+    public ListingsController(ListingService listingService,
+                              ListingDetailService listingDetailService,
+                              CatalogVersions catalogVersions,
+                              ConditionalGet conditionalGet,
+                              TrendingService trendingService,
+                              @Value("${petify.listings.page-size:20}") int defaultPageSize,
+                              @Value("${petify.listings.max-page-size:100}") int maxPageSize,
+                              @Value("${petify.batch.max-ids:100}") int maxBatchSize) {
         this.listingService = listingService;
+        this.listingDetailService = listingDetailService;
+        this.catalogVersions = catalogVersions;
+        this.conditionalGet = conditionalGet;
+        this.trendingService = trendingService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    // Requested page size clamped to [1, max]
+    private int pageSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
     }
 
     /**
@@ -49,6 +83,28 @@ public class ListingsController {
         }
     }
 
+    /**
+     * Get several listings at once, in any status, e.g. for a user's favorites
+     * GET /api/listings?ids=1,2,3
+     * Response: {"items": [...], "missing": [...]}, items in request order
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getListingsByIds(@RequestParam List<Long> ids) {
+        if (ids.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "ids is required"));
+        }
+        if (ids.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + maxBatchSize + " ids per request"));
+        }
+        try {
+            return ResponseEntity.ok(listingService.getListingsByIds(ids));
+        } catch (Exception e) {
+            logger.error("Error fetching listings: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve listings: " + e.getMessage()));
+        }
+    }
+
     /**
      * Get all listings for the current owner
      * GET /api/listings/my-listings
@@ -69,10 +125,38 @@ public class ListingsController {
      * GET /api/listings/{listingId}
      */
     @GetMapping("/{listingId}")
-    public ResponseEntity<?> getListingById(@PathVariable Long listingId) {
+    public ResponseEntity<?> getListingById(@PathVariable Long listingId,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Read the version before the listing, so the tag is never newer than the body
+        String etag = catalogVersions.etag(CatalogVersions.Catalog.LISTINGS);
+        if (conditionalGet.isNotModified("listing", ifNoneMatch, etag)) {
+            // A client polling a listing it already holds is still viewing it; the listing is not
+            // read here, so only listings already known to trending are counted
+            trendingService.recordUnverifiedView(listingId);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         try {
             ListingDTO listing = listingService.getListingById(listingId);
-            return ResponseEntity.ok(listing);
+            trendingService.recordView(listingId);
+            return ResponseEntity.ok().eTag(etag).body(listing);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get everything the listing page shows: listing, pet, owner, owner reviews, owner
+     * verification and, when the viewer is known, whether they favorited it
+     * GET /api/listings/{listingId}/detail
+     */
+    @GetMapping("/{listingId}/detail")
+    public ResponseEntity<?> getListingDetail(@PathVariable Long listingId,
+                                              @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        try {
+            ListingDetailDTO detail = listingDetailService.getListingDetail(listingId, userId);
+            trendingService.recordView(listingId);
+            return ResponseEntity.ok(detail);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of("error", e.getMessage()));
@@ -138,20 +222,51 @@ public class ListingsController {
     }
 
     /**
-     * Get all active listings
-     * GET /api/listings/active
+     * Get active listings, newest first, one page at a time
+     * GET /api/listings/active?cursor={nextCursorOfPreviousPage}&limit={pageSize}
      */
     @GetMapping("/active")
-    public ResponseEntity<?> getActiveListings() {
+    public ResponseEntity<?> getActiveListings(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
         try {
-            List<ListingDTO> listings = listingService.getActiveListings();
-            return ResponseEntity.ok(listings);
+            return ResponseEntity.ok(listingService.getActiveListings(cursor, pageSize(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "Failed to retrieve active listings: " + e.getMessage()));
         }
     }
 
+    /**
+     * Most active listings lately, by views and new favorites that count less the older they are.
+     * Served from the last ranking, refreshed every few seconds.
+     * GET /api/listings/trending?limit={count}
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingListingDTO>> getTrendingListings(@RequestParam(required = false) Integer limit) {
+        int count = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, trendingService.getMaxSize()));
+        return ResponseEntity.ok(trendingService.getTrending(count));
+    }
+
+    /**
+     * Full-text search of active listings by pet name, breed, species and description
+     * GET /api/listings/search?q={text}&limit={maxResults}
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchListings(@RequestParam String q,
+                                            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(listingService.searchListings(q, pageSize(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Failed to search listings: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Failed to search listings: " + e.getMessage()));
+        }
+    }
+
     /**
      * Get recommended listings for a user
      * GET /api/listings/recommendations
@@ -1,13 +1,17 @@
 package com.petify.petify.api;
 
 import com.petify.petify.dto.AnimalResponseDTO;
+import com.petify.petify.service.CatalogVersions;
 import com.petify.petify.service.PetService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,9 +20,38 @@ public class PetController {
 
     private static final Logger logger = LoggerFactory.getLogger(PetController.class);
     private final PetService petService;
+    private final CatalogVersions catalogVersions;
+    private final ConditionalGet conditionalGet;
+    private final int maxBatchSize;
 
-    public PetController(PetService petService) {
+    public PetController(PetService petService, CatalogVersions catalogVersions, ConditionalGet conditionalGet,
+                         @Value("${petify.batch.max-ids:100}") int maxBatchSize) {
         this.petService = petService;
+        this.catalogVersions = catalogVersions;
+        this.conditionalGet = conditionalGet;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Get several pets at once, e.g. for the pets of a page of listings
+     * GET /api/pets?ids=1,2,3
+     * Response: {"items": [...], "missing": [...]}, items in request order
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getPetsByIds(@RequestParam List<Long> ids) {
+        if (ids.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "ids is required"));
+        }
+        if (ids.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + maxBatchSize + " ids per request"));
+        }
+        try {
+            return ResponseEntity.ok(petService.getPetsByIds(ids));
+        } catch (Exception e) {
+            logger.error("Unexpected error fetching pets: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve pets: " + e.getMessage()));
+        }
     }
 
     /**
@@ -28,11 +61,17 @@ public class PetController {
      * @return the pet details as DTO
      */
     @GetMapping("/{petId}")
-    public ResponseEntity<?> getPetById(@PathVariable Long petId) {
+    public ResponseEntity<?> getPetById(@PathVariable Long petId,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Read the version before the pet, so the tag is never newer than the body
+        String etag = catalogVersions.etag(CatalogVersions.Catalog.PETS);
+        if (conditionalGet.isNotModified("pet", ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         try {
             logger.info("Fetching pet with ID: {}", petId);
             AnimalResponseDTO pet = petService.getPetById(petId);
-            return ResponseEntity.ok(pet);
+            return ResponseEntity.ok().eTag(etag).body(pet);
         } catch (RuntimeException e) {
             logger.error("Error fetching pet: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
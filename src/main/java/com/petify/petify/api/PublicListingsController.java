@@ -1,20 +1,98 @@
 package com.petify.petify.api;
-import com.petify.petify.repo.PublicListingCardView;
-import com.petify.petify.repo.PublicListingRepository;
+import com.petify.petify.dto.ListingSearchCriteria;
+import com.petify.petify.service.ActiveListingCardCache;
+import com.petify.petify.service.CatalogVersions;
+import com.petify.petify.service.ListingSearchService;
+import com.petify.petify.util.ListingCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/public")
 public class PublicListingsController {
-    private final PublicListingRepository repo;
+    private final ActiveListingCardCache activeListingCardCache;
+    private final ListingSearchService listingSearchService;
+    private final CatalogVersions catalogVersions;
+    private final ConditionalGet conditionalGet;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public PublicListingsController(PublicListingRepository repo) {
-        this.repo = repo;
+    public PublicListingsController(ActiveListingCardCache activeListingCardCache,
+                                    ListingSearchService listingSearchService,
+                                    CatalogVersions catalogVersions,
+                                    ConditionalGet conditionalGet,
+                                    @Value("${petify.listings.page-size:20}") int defaultPageSize,
+                                    @Value("${petify.listings.max-page-size:100}") int maxPageSize) {
+        this.activeListingCardCache = activeListingCardCache;
+        this.listingSearchService = listingSearchService;
+        this.catalogVersions = catalogVersions;
+        this.conditionalGet = conditionalGet;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
+    /**
+     * Active listing cards, newest first, one page at a time
+     * GET /api/public/listings?cursor={nextCursorOfPreviousPage}&limit={pageSize}
+     */
     @GetMapping("/listings")
-    public List<PublicListingCardView> getListings() {
-        return repo.findActiveListingCards();
+    public ResponseEntity<?> getListings(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Read the version before the page, so the tag is never newer than the body
+        String etag = catalogVersions.etag(CatalogVersions.Catalog.LISTINGS);
+        if (conditionalGet.isNotModified("public-listings", ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        ListingCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = ListingCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        }
+        return ResponseEntity.ok().eTag(etag).body(activeListingCardCache.getPage(after, pageSize(limit)));
+    }
+
+    /**
+     * Search active listings by animal attributes, price and age, newest first, with facet counts
+     * GET /api/public/listings/search?species=&breed=&type=&location=&minPrice=&maxPrice=&createdAfter=&cursor=&limit=
+     */
+    @GetMapping("/listings/search")
+    public ResponseEntity<?> searchListings(@RequestParam(required = false) String species,
+                                            @RequestParam(required = false) String breed,
+                                            @RequestParam(required = false) String type,
+                                            @RequestParam(required = false) String location,
+                                            @RequestParam(required = false) BigDecimal minPrice,
+                                            @RequestParam(required = false) BigDecimal maxPrice,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "minPrice must not exceed maxPrice"));
+        }
+        ListingSearchCriteria criteria = new ListingSearchCriteria(
+            species, breed, type, location, minPrice, maxPrice, createdAfter);
+        try {
+            return ResponseEntity.ok(listingSearchService.search(criteria, cursor, pageSize(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Requested page size clamped to [1, max]
+    private int pageSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
     }
 }
@@ -2,9 +2,11 @@ package com.petify.petify.api;
 
 import com.petify.petify.dto.CreateReviewRequest;
 import com.petify.petify.dto.ReviewDTO;
+import com.petify.petify.service.CatalogVersions;
 import com.petify.petify.service.ReviewService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,9 +21,13 @@ public class ReviewController {
     private static final Logger logger = LoggerFactory.getLogger(ReviewController.class);
 
     private final ReviewService reviewService;
+    private final CatalogVersions catalogVersions;
+    private final ConditionalGet conditionalGet;
 
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, CatalogVersions catalogVersions, ConditionalGet conditionalGet) {
         this.reviewService = reviewService;
+        this.catalogVersions = catalogVersions;
+        this.conditionalGet = conditionalGet;
     }
 
     /**
@@ -65,11 +71,17 @@ public class ReviewController {
      * @return list of reviews
      */
     @GetMapping("/{targetUserId}")
-    public ResponseEntity<?> getReviewsByUser(@PathVariable Long targetUserId) {
+    public ResponseEntity<?> getReviewsByUser(@PathVariable Long targetUserId,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Read the version before the reviews, so the tag is never newer than the body
+        String etag = catalogVersions.etag(CatalogVersions.Catalog.REVIEWS);
+        if (conditionalGet.isNotModified("user-reviews", ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         try {
             logger.info("Fetching reviews for user {}", targetUserId);
             List<ReviewDTO> reviews = reviewService.getReviewsByUser(targetUserId);
-            return ResponseEntity.ok(reviews);
+            return ResponseEntity.ok().eTag(etag).body(reviews);
         } catch (RuntimeException e) {
             logger.error("Error fetching reviews: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -81,6 +93,23 @@ public class ReviewController {
         }
     }
 
+    /**
+     * Get the rating summary for a user
+     * GET /api/reviews/{targetUserId}/summary
+     * @param targetUserId the user ID being reviewed
+     * @return review count, average rating and star histogram
+     */
+    @GetMapping("/{targetUserId}/summary")
+    public ResponseEntity<?> getRatingSummary(@PathVariable Long targetUserId) {
+        try {
+            return ResponseEntity.ok(reviewService.getRatingSummary(targetUserId));
+        } catch (RuntimeException e) {
+            logger.error("Error fetching rating summary: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Delete a review
      * DELETE /api/reviews/{reviewId}
@@ -1,14 +1,18 @@
 package com.petify.petify.api;
 
 import com.petify.petify.domain.Client;
-import com.petify.petify.dto.ListingDTO;
+import com.petify.petify.dto.AdminListingDTO;
+import com.petify.petify.dto.CursorPage;
 import com.petify.petify.dto.UserDTO;
+import com.petify.petify.dto.VerificationBatchRequest;
 import com.petify.petify.repo.ClientRepository;
 import com.petify.petify.service.AuthService;
 import com.petify.petify.service.ListingService;
+import com.petify.petify.service.UserRoleCache;
 import com.petify.petify.service.VerificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,31 +31,79 @@ public class UserManagementController {
     private final VerificationService verificationService;
     private final ListingService listingService;
     private final ClientRepository clientRepository;
+    private final UserRoleCache userRoleCache;
 
-    public UserManagementController(AuthService authService, VerificationService verificationService, ListingService listingService, ClientRepository clientRepository) {
+    private final int maxVerificationBatchSize;
+    private final int maxPageSize;
+    private final int maxBatchSize;
+
+    public UserManagementController(AuthService authService, VerificationService verificationService, ListingService listingService, ClientRepository clientRepository,
+                                    UserRoleCache userRoleCache,
+                                    @Value("${petify.verification.batch-max-ids:500}") int maxVerificationBatchSize,
+                                    @Value("${petify.users.max-page-size:1000}") int maxPageSize,
+                                    @Value("${petify.batch.max-ids:100}") int maxBatchSize) {
         this.authService = authService;
         this.verificationService = verificationService;
         this.listingService = listingService;
         this.clientRepository = clientRepository;
+        this.userRoleCache = userRoleCache;
+        this.maxVerificationBatchSize = maxVerificationBatchSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    // Requested page size clamped to [1, max]; without a limit the largest page is served
+    private int pageSize(Integer limit) {
+        return limit == null ? maxPageSize : Math.max(1, Math.min(limit, maxPageSize));
     }
 
+    /**
+     * Get users, one page at a time
+     * GET /api/users?after={nextCursorOfPreviousPage}&limit={pageSize}
+     * Response: {"items": [...], "nextCursor": "..."}, nextCursor null on the last page.
+     * Without limit the largest page size is used.
+     */
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
+    public ResponseEntity<CursorPage<UserDTO>> getAllUsers(@RequestParam(required = false) Long after,
+                                                           @RequestParam(required = false) Integer limit) {
         logger.info("===== GET ALL USERS (Public) =====");
         try {
-            List<UserDTO> users = authService.getAllUsers();
+            CursorPage<UserDTO> page = authService.getUsers(after, pageSize(limit));
+            List<UserDTO> users = page.items();
             logger.info("✓ Retrieved {} users", users.size());
             for (int i = 0; i < Math.min(users.size(), 3); i++) {
                 UserDTO user = users.get(i);
                 logger.info("User {}: ID={}, Type={}", i, user.getUserId(), user.getUserType());
             }
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             logger.error("❌ Error in getAllUsers: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
+    /**
+     * Get several users at once, e.g. for the owners of a page of listings
+     * GET /api/users?ids=1,2,3
+     * Response: {"items": [...], "missing": [...]}, items in request order
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getUsersByIds(@RequestParam List<Long> ids) {
+        if (ids.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "ids is required"));
+        }
+        if (ids.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + maxBatchSize + " ids per request"));
+        }
+        try {
+            return ResponseEntity.ok(authService.getUsersByIds(ids));
+        } catch (Exception e) {
+            logger.error("❌ Error in getUsersByIds: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve users: " + e.getMessage()));
+        }
+    }
+
     /**
      * Get user by ID
      * GET /api/users/{userId}
@@ -81,16 +133,21 @@ public class UserManagementController {
     }
 
     /**
-     * Get all users (Admin only)
-     * GET /api/users/admin/all
+     * Get all users (Admin only), one page at a time
+     * GET /api/users/admin/all?after={nextCursorOfPreviousPage}&limit={pageSize}
+     * Response: {"items": [...], "nextCursor": "..."}, nextCursor null on the last page.
+     * Without limit the largest page size is used.
      */
     @GetMapping("/admin/all")
-    public ResponseEntity<List<UserDTO>> getAllUsersAdmin(@RequestHeader("X-User-Id") Long userId) {
+    public ResponseEntity<CursorPage<UserDTO>> getAllUsersAdmin(@RequestHeader("X-User-Id") Long userId,
+                                                                @RequestParam(required = false) Long after,
+                                                                @RequestParam(required = false) Integer limit) {
         try {
             logger.info("========== GET ALL USERS (ADMIN) ==========");
             logger.info("Admin User ID: {}", userId);
 
-            List<UserDTO> users = authService.getAllUsers();
+            CursorPage<UserDTO> page = authService.getUsers(after, pageSize(limit));
+            List<UserDTO> users = page.items();
             logger.info("✓ Retrieved {} users from AuthService", users.size());
 
             // Log first few users to verify userType is included
@@ -101,7 +158,7 @@ public class UserManagementController {
             }
 
             logger.info("========== RETURNING {} USERS ==========", users.size());
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             logger.error("❌ Error fetching users: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -110,54 +167,25 @@ public class UserManagementController {
     }
 
     /**
-     * Get all listings (Admin only)
-     * GET /api/users/admin/listings
+     * Get listings with owner details, one page at a time (Admin only)
+     * GET /api/users/admin/listings?after={lastListingIdOfPreviousPage}&limit={pageSize}&status={status}&ownerId={ownerId}
+     * Without limit the largest page size is used.
      */
     @GetMapping("/admin/listings")
-    public ResponseEntity<List<Map<String, Object>>> getAllListingsAdmin(@RequestHeader("X-User-Id") Long userId) {
+    public ResponseEntity<List<AdminListingDTO>> getAllListingsAdmin(@RequestHeader("X-User-Id") Long userId,
+                                                                     @RequestParam(required = false) Long after,
+                                                                     @RequestParam(required = false) Integer limit,
+                                                                     @RequestParam(required = false) String status,
+                                                                     @RequestParam(required = false) Long ownerId) {
         try {
             logger.info("========== GET ALL LISTINGS (ADMIN) ==========");
-            logger.info("Admin User ID: {}", userId);
+            logger.info("Admin User ID: {}, after: {}, status: {}, owner: {}", userId, after, status, ownerId);
 
-            List<ListingDTO> listings = listingService.getAllListings();
-            logger.info("✓ Retrieved {} listings from ListingService", listings.size());
-
-            // Enrich listings with owner names
-            List<Map<String, Object>> enrichedListings = listings.stream()
-                    .map(listing -> {
-                        Map<String, Object> map = new java.util.HashMap<>();
-                        map.put("listingId", listing.getListingId());
-                        map.put("animalId", listing.getAnimalId());
-                        map.put("ownerId", listing.getOwnerId());
-                        map.put("price", listing.getPrice());
-                        map.put("status", listing.getStatus());
-                        map.put("description", listing.getDescription());
-                        map.put("createdAt", listing.getCreatedAt());
-
-                        // Fetch owner name from users table
-                        if (listing.getOwnerId() != null) {
-                            try {
-                                UserDTO owner = authService.getUserById(listing.getOwnerId());
-                                map.put("ownerName", owner.getFirstName() + " " + owner.getLastName());
-                                map.put("ownerUsername", owner.getUsername());
-                                logger.debug("✓ Owner for listing {}: {}", listing.getListingId(), map.get("ownerName"));
-                            } catch (Exception e) {
-                                logger.warn("⚠ Could not fetch owner for listing {}: {}", listing.getListingId(), e.getMessage());
-                                map.put("ownerName", "Unknown");
-                                map.put("ownerUsername", "Unknown");
-                            }
-                        } else {
-                            map.put("ownerName", "Unknown");
-                            map.put("ownerUsername", "Unknown");
-                        }
-
-                        return map;
-                    })
-                    .collect(java.util.stream.Collectors.toList());
-
-            logger.info("✓ Enriched {} listings with owner information", enrichedListings.size());
-            logger.info("========== RETURNING {} LISTINGS ==========", enrichedListings.size());
-            return ResponseEntity.ok(enrichedListings);
+            List<AdminListingDTO> listings = listingService.getAdminListings(
+                    after, status, ownerId, pageSize(limit));
+
+            logger.info("========== RETURNING {} LISTINGS ==========", listings.size());
+            return ResponseEntity.ok(listings);
         } catch (Exception e) {
             logger.error("❌ Error fetching listings: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -195,6 +223,29 @@ public class UserManagementController {
         }
     }
 
+    /**
+     * Check verification status of many users at once, e.g. for a page of listing cards
+     * POST /api/users/verified:batch
+     * Body: {"userIds": [1, 2, 3]}; response: {"1": true, "2": false, "3": false}
+     */
+    @PostMapping("/verified:batch")
+    public ResponseEntity<?> areUsersVerified(@RequestBody VerificationBatchRequest request) {
+        List<Long> userIds = request.getUserIds();
+        if (userIds == null || userIds.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "userIds is required"));
+        }
+        if (userIds.size() > maxVerificationBatchSize) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + maxVerificationBatchSize + " userIds per request"));
+        }
+        try {
+            return ResponseEntity.ok(verificationService.areUsersVerified(userIds));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to check verification status: " + e.getMessage()));
+        }
+    }
+
     /**
      * Block/Unblock user (Admin only)
      * PATCH /api/users/admin/{userId}/block
@@ -228,6 +279,7 @@ public class UserManagementController {
             }
 
             clientRepository.save(client);
+            userRoleCache.invalidate(targetUserId);
             logger.info("========== USER {} SUCCESSFULLY {}", targetUserId, isBlocked ? "BLOCKED" : "UNBLOCKED");
 
             return ResponseEntity.ok(Map.of(
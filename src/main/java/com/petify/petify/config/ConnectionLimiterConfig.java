@@ -0,0 +1,47 @@
+package com.petify.petify.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Puts {@link ConnectionLimitingDataSource} in front of the pool when
+ * {@code petify.datasource.acquire-limit.enabled} is set, as it is in the virtual-threads profile:
+ * with a virtual thread per request nothing else bounds how many callers reach the pool at once.
+ */
+@Configuration
+@ConditionalOnProperty(name = "petify.datasource.acquire-limit.enabled", havingValue = "true")
+public class ConnectionLimiterConfig {
+
+    // Static so the post-processor does not force this configuration to initialize early
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        // Defaults to the pool size and the pool's own connection timeout
+        int permits = environment.getProperty("petify.datasource.acquire-limit.permits", Integer.class,
+            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration timeout = environment.getProperty("petify.datasource.acquire-limit.timeout", Duration.class,
+            Duration.ofMillis(environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L)));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, permits, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // A plain binder: exposing the limiter itself would register a second DataSource bean
+    @Bean
+    public MeterBinder connectionLimiterMetrics(DataSource dataSource) throws SQLException {
+        return dataSource.unwrap(ConnectionLimitingDataSource.class)::bindTo;
+    }
+}
@@ -0,0 +1,125 @@
+package com.petify.petify.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of connections checked out at once. Callers beyond the cap queue on a fair
+ * semaphore, which parks virtual threads cheaply, instead of all contending inside the pool; a
+ * caller that waits longer than {@code timeout} fails like a pool timeout would. The permit is
+ * returned when the connection is closed.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final Duration timeout;
+
+    // Set once metrics are bound; connections taken before that (startup) are not timed
+    private volatile Timer waitTimer;
+    private volatile Counter timeouts;
+
+    public ConnectionLimitingDataSource(DataSource target, int maxPermits, Duration timeout) {
+        super(target);
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Register wait time, timeouts, waiting threads and permits in use
+     */
+    public void bindTo(MeterRegistry registry) {
+        waitTimer = Timer.builder("petify.datasource.acquire.wait")
+            .description("Time spent waiting for a connection permit")
+            .register(registry);
+        timeouts = Counter.builder("petify.datasource.acquire.timeouts")
+            .description("Connection requests that gave up waiting for a permit")
+            .register(registry);
+        Gauge.builder("petify.datasource.acquire.waiting", permits, Semaphore::getQueueLength)
+            .description("Threads waiting for a connection permit")
+            .register(registry);
+        Gauge.builder("petify.datasource.acquire.in-use", this, source -> source.maxPermits - source.permits.availablePermits())
+            .description("Connection permits currently held")
+            .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection permit", e);
+        }
+        Timer timer = waitTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            Counter counter = timeouts;
+            if (counter != null) {
+                counter.increment();
+            }
+            throw new SQLTransientConnectionException("No connection permit available within " + timeout.toMillis()
+                + "ms (" + maxPermits + " in use)");
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                    try {
+                        connection.close();
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+}
@@ -1,14 +1,24 @@
 package com.petify.petify.config;
 
+import com.petify.petify.service.PasswordHashingService;
+import com.petify.petify.service.TokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.SingleResultAuthorizationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -21,13 +31,10 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
 
-    //@Bean
-    //public PasswordEncoder passwordEncoder() {
-     //   return new BCryptPasswordEncoder();
-   // }
+    // Calibrated bcrypt that still accepts legacy plaintext rows; see PasswordHashingService
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return NoOpPasswordEncoder.getInstance();
+    public PasswordEncoder passwordEncoder(PasswordHashingService passwordHashingService) {
+        return passwordHashingService.getEncoder();
     }
 
     @Bean
@@ -37,60 +44,95 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT","PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
 
+    /**
+     * Endpoints acting for the caller need a token, and owner endpoints the OWNER role in it. With
+     * the legacy X-User-Id header allowed they stay open, as the header carries no role.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService,
+                                                   @Value("${petify.auth.allow-user-id-header:false}") boolean allowUserIdHeader) throws Exception {
+        AuthorizationManager<RequestAuthorizationContext> caller = allowUserIdHeader
+                ? SingleResultAuthorizationManager.permitAll()
+                : AuthenticatedAuthorizationManager.authenticated();
+        AuthorizationManager<RequestAuthorizationContext> owner = allowUserIdHeader
+                ? SingleResultAuthorizationManager.permitAll()
+                : AuthorityAuthorizationManager.hasRole("OWNER");
+
         http
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService, allowUserIdHeader),
+                        UsernamePasswordAuthenticationFilter.class)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
+                // API callers without a token get a 401 rather than the login page
+                .exceptionHandling(exceptions -> exceptions.defaultAuthenticationEntryPointFor(
+                        new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                        PathPatternRequestMatcher.withDefaults().matcher("/api/**")))
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints - no authentication required
                         .requestMatchers("/api/public/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/auth/refresh").authenticated()
                         .requestMatchers("/api/auth/**").permitAll()
 
+                        // Admin endpoints - role comes from the access token
+                        .requestMatchers(HttpMethod.OPTIONS, "/api/users/admin/**").permitAll()
+                        .requestMatchers("/api/users/admin/**").hasRole("ADMIN")
+
                         .requestMatchers(HttpMethod.GET, "/api/users/*/pets").permitAll()
-                        .requestMatchers(HttpMethod.POST, "/api/users/*/pets").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/users/*/pets").access(caller)
+
+                        // Per-caller listing reads, ahead of the public /api/listings/* below
+                        .requestMatchers(HttpMethod.GET, "/api/listings/my-listings").access(owner)
+                        .requestMatchers(HttpMethod.GET, "/api/listings/recommendations").access(caller)
 
                         // Public listings endpoints
                         .requestMatchers(HttpMethod.GET, "/api/listings/active").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/listings/search").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/listings/*").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/listings/*/detail").permitAll()
 
-                        // Protected listings endpoints
-                        //.requestMatchers(HttpMethod.GET, "/api/listings/my-listings").authenticated()
-                        .requestMatchers(HttpMethod.POST, "/api/listings").permitAll()
-                        .requestMatchers(HttpMethod.PATCH, "/api/listings/*").permitAll()
+                        // Multi-gets; the bare /api/users list stays protected
+                        .requestMatchers(HttpMethod.GET, "/api/listings", "/api/pets").permitAll()
+                        .requestMatchers(request -> HttpMethod.GET.matches(request.getMethod())
+                                && "/api/users".equals(request.getRequestURI())
+                                && request.getParameter("ids") != null).permitAll()
+
+                        // Protected listings endpoints; the services check the caller owns the listing
+                        .requestMatchers(HttpMethod.POST, "/api/listings").access(owner)
+                        .requestMatchers(HttpMethod.PATCH, "/api/listings/*").access(owner)
                         .requestMatchers(HttpMethod.OPTIONS, "/api/listings/*").permitAll()
-                        .requestMatchers(HttpMethod.DELETE, "/api/listings/*").permitAll()
-                        .requestMatchers(HttpMethod.PATCH, "/api/listings/*/status").permitAll()
+                        .requestMatchers(HttpMethod.DELETE, "/api/listings/*").access(owner)
+                        .requestMatchers(HttpMethod.PATCH, "/api/listings/*/status").access(owner)
                         .requestMatchers(HttpMethod.OPTIONS, "/api/listings/*/status").permitAll()
-                        .requestMatchers(HttpMethod.PATCH,"/api/users/admin/*/block").permitAll()
-                        .requestMatchers(HttpMethod.OPTIONS, "/api/users/admin/*/block").permitAll()
 
                         // Protected user endpoints
                         .requestMatchers(HttpMethod.GET, "/api/users/*").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/owner/*").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/reviews/*").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/reviews/*/summary").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/pets/*").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/users/admin/*").permitAll()
-                        .requestMatchers(HttpMethod.POST, "/api/reviews/*").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/reviews/*").access(caller)
 
                         // Favorites endpoints - protected
-                        .requestMatchers(HttpMethod.POST, "/api/favorites/**").permitAll()
-                        .requestMatchers(HttpMethod.DELETE, "/api/favorites/**").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/favorites").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/favorites/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/favorites/**").access(caller)
+                        .requestMatchers(HttpMethod.DELETE, "/api/favorites/**").access(caller)
+                        .requestMatchers(HttpMethod.GET, "/api/favorites").access(caller)
+                        .requestMatchers(HttpMethod.GET, "/api/favorites/**").access(caller)
                         .requestMatchers(HttpMethod.GET,"/api/listings/my-listings/*").permitAll()
-                        .requestMatchers(HttpMethod.DELETE, "/api/reviews/**").permitAll()
+                        .requestMatchers(HttpMethod.DELETE, "/api/reviews/**").access(caller)
                         .requestMatchers(HttpMethod.GET,"/api/users/*/verified").permitAll()
+                        .requestMatchers(HttpMethod.POST,"/api/users/verified:batch").permitAll()
                         .requestMatchers(HttpMethod.GET,"/api/users/verification/top-10").permitAll()
-                        .requestMatchers(HttpMethod.GET,"/api/listings/recommendations").permitAll()
-                        .requestMatchers(HttpMethod.GET,"/api/users/admin/all").permitAll()
-                        .requestMatchers(HttpMethod.GET,"/api/users/admin/listings").permitAll()
+
+                        // Actuator health is public, metrics expose internals and are for admins
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
 
                         // All other requests require authentication
                         .anyRequest().authenticated()
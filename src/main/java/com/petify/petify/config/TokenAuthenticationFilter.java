@@ -0,0 +1,114 @@
+package com.petify.petify.config;
+
+import com.petify.petify.dto.AuthenticatedUser;
+import com.petify.petify.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <token>} from the token alone and
+ * replaces any X-User-Id header with the token's user, so controllers reading that header get a
+ * verified ID. An invalid or expired token is a 401. Requests without a token lose their X-User-Id
+ * header unless {@code allowUserIdHeader} is set, an opt-in for legacy clients not sending tokens.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+    private final boolean allowUserIdHeader;
+
+    public TokenAuthenticationFilter(TokenService tokenService, boolean allowUserIdHeader) {
+        this.tokenService = tokenService;
+        this.allowUserIdHeader = allowUserIdHeader;
+    }
+
+    // Error pages are protected too; a 403 must not turn into a login redirect
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            chain.doFilter(allowUserIdHeader ? request : new UserIdRequest(request, null), response);
+            return;
+        }
+
+        AuthenticatedUser user;
+        try {
+            user = tokenService.verify(authorization.substring(BEARER_PREFIX.length()).trim());
+        } catch (JwtException e) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Invalid or expired token\"}");
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null,
+            List.of(new SimpleGrantedAuthority("ROLE_" + user.userType().name()))));
+        SecurityContextHolder.setContext(context);
+        try {
+            chain.doFilter(new UserIdRequest(request, user.userId().toString()), response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * The request with X-User-Id set to the given value, or removed when it is null
+     */
+    private static final class UserIdRequest extends HttpServletRequestWrapper {
+
+        private final String userId;
+
+        UserIdRequest(HttpServletRequest request, String userId) {
+            super(request);
+            this.userId = userId;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return USER_ID_HEADER.equalsIgnoreCase(name) ? userId : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!USER_ID_HEADER.equalsIgnoreCase(name)) {
+                return super.getHeaders(name);
+            }
+            return userId == null ? Collections.emptyEnumeration() : Collections.enumeration(List.of(userId));
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(USER_ID_HEADER::equalsIgnoreCase);
+            if (userId != null) {
+                names.add(USER_ID_HEADER);
+            }
+            return Collections.enumeration(names);
+        }
+    }
+}
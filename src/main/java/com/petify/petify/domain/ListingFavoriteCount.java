@@ -0,0 +1,34 @@
+package com.petify.petify.domain;
+
+import jakarta.persistence.*;
+
+/**
+ * One stripe of a listing's favorite count; the count is the sum over its stripes
+ */
+@Entity
+@Table(name = "listing_favorite_counts")
+@IdClass(ListingFavoriteCountId.class)
+public class ListingFavoriteCount {
+
+    @Id
+    @Column(name = "listing_id")
+    private Long listingId;
+
+    @Id
+    @Column(name = "stripe")
+    private Short stripe;
+
+    @Column(name = "favorite_count", nullable = false)
+    private long favoriteCount;
+
+    public ListingFavoriteCount() {}
+
+    public Long getListingId() { return listingId; }
+    public void setListingId(Long listingId) { this.listingId = listingId; }
+
+    public Short getStripe() { return stripe; }
+    public void setStripe(Short stripe) { this.stripe = stripe; }
+
+    public long getFavoriteCount() { return favoriteCount; }
+    public void setFavoriteCount(long favoriteCount) { this.favoriteCount = favoriteCount; }
+}
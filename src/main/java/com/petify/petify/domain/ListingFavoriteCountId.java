@@ -0,0 +1,30 @@
+package com.petify.petify.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class ListingFavoriteCountId implements Serializable {
+
+    private Long listingId;
+    private Short stripe;
+
+    public ListingFavoriteCountId() {}
+
+    public ListingFavoriteCountId(Long listingId, Short stripe) {
+        this.listingId = listingId;
+        this.stripe = stripe;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ListingFavoriteCountId that)) return false;
+        return Objects.equals(listingId, that.listingId)
+                && Objects.equals(stripe, that.stripe);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(listingId, stripe);
+    }
+}
@@ -0,0 +1,44 @@
+package com.petify.petify.domain;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpointed trending score of a listing, as it was at {@code scoredAt}
+ */
+@Entity
+@Table(name = "listing_trending_scores")
+public class ListingTrendingScore implements Persistable<Long> {
+
+    @Id
+    @Column(name = "listing_id")
+    private Long listingId;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(name = "scored_at", nullable = false)
+    private LocalDateTime scoredAt;
+
+    public ListingTrendingScore() {}
+
+    public ListingTrendingScore(Long listingId, double score, LocalDateTime scoredAt) {
+        this.listingId = listingId;
+        this.score = score;
+        this.scoredAt = scoredAt;
+    }
+
+    public Long getListingId() { return listingId; }
+    public double getScore() { return score; }
+    public LocalDateTime getScoredAt() { return scoredAt; }
+
+    @Override
+    public Long getId() { return listingId; }
+
+    // Checkpoints replace the whole table, so rows are only ever inserted: save() can persist
+    // in batches instead of merging (a select per row)
+    @Override
+    public boolean isNew() { return true; }
+}
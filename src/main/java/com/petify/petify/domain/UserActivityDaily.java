@@ -0,0 +1,39 @@
+package com.petify.petify.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "user_activity_daily")
+@IdClass(UserActivityDailyId.class)
+public class UserActivityDaily {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "activity_date")
+    private LocalDate activityDate;
+
+    @Column(name = "listings_created", nullable = false)
+    private int listingsCreated;
+
+    @Column(name = "reviews_left", nullable = false)
+    private int reviewsLeft;
+
+    public UserActivityDaily() {}
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDate getActivityDate() { return activityDate; }
+    public void setActivityDate(LocalDate activityDate) { this.activityDate = activityDate; }
+
+    public int getListingsCreated() { return listingsCreated; }
+    public void setListingsCreated(int listingsCreated) { this.listingsCreated = listingsCreated; }
+
+    public int getReviewsLeft() { return reviewsLeft; }
+    public void setReviewsLeft(int reviewsLeft) { this.reviewsLeft = reviewsLeft; }
+}
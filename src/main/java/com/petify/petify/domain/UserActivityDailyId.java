@@ -0,0 +1,31 @@
+package com.petify.petify.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class UserActivityDailyId implements Serializable {
+
+    private Long userId;
+    private LocalDate activityDate;
+
+    public UserActivityDailyId() {}
+
+    public UserActivityDailyId(Long userId, LocalDate activityDate) {
+        this.userId = userId;
+        this.activityDate = activityDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserActivityDailyId that)) return false;
+        return Objects.equals(userId, that.userId)
+                && Objects.equals(activityDate, that.activityDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, activityDate);
+    }
+}
@@ -0,0 +1,23 @@
+package com.petify.petify.domain;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "user_activity_totals")
+public class UserActivityTotal {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "favorites_saved", nullable = false)
+    private int favoritesSaved;
+
+    public UserActivityTotal() {}
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public int getFavoritesSaved() { return favoritesSaved; }
+    public void setFavoritesSaved(int favoritesSaved) { this.favoritesSaved = favoritesSaved; }
+}
@@ -0,0 +1,44 @@
+package com.petify.petify.domain;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "user_rating_summaries")
+public class UserRatingSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "review_count", nullable = false)
+    private int reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_1", nullable = false)
+    private int rating1;
+
+    @Column(name = "rating_2", nullable = false)
+    private int rating2;
+
+    @Column(name = "rating_3", nullable = false)
+    private int rating3;
+
+    @Column(name = "rating_4", nullable = false)
+    private int rating4;
+
+    @Column(name = "rating_5", nullable = false)
+    private int rating5;
+
+    public UserRatingSummary() {}
+
+    public Long getUserId() { return userId; }
+    public int getReviewCount() { return reviewCount; }
+    public long getRatingSum() { return ratingSum; }
+    public int getRating1() { return rating1; }
+    public int getRating2() { return rating2; }
+    public int getRating3() { return rating3; }
+    public int getRating4() { return rating4; }
+    public int getRating5() { return rating5; }
+}
@@ -0,0 +1,66 @@
+package com.petify.petify.domain;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "user_recommendations")
+@IdClass(UserRecommendationId.class)
+public class UserRecommendation {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "listing_id")
+    private Long listingId;
+
+    @Column(nullable = false)
+    private int rank;
+
+    @Column(name = "cf_score", nullable = false)
+    private long cfScore;
+
+    @Column(name = "liked_by_similar_users", nullable = false)
+    private long likedBySimilarUsers;
+
+    @Column(name = "content_score", nullable = false)
+    private long contentScore;
+
+    @Column(name = "final_score", nullable = false)
+    private long finalScore;
+
+    public UserRecommendation() {}
+
+    public UserRecommendation(Long userId, Long listingId, int rank, long cfScore,
+                              long likedBySimilarUsers, long contentScore, long finalScore) {
+        this.userId = userId;
+        this.listingId = listingId;
+        this.rank = rank;
+        this.cfScore = cfScore;
+        this.likedBySimilarUsers = likedBySimilarUsers;
+        this.contentScore = contentScore;
+        this.finalScore = finalScore;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getListingId() { return listingId; }
+    public void setListingId(Long listingId) { this.listingId = listingId; }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+
+    public long getCfScore() { return cfScore; }
+    public void setCfScore(long cfScore) { this.cfScore = cfScore; }
+
+    public long getLikedBySimilarUsers() { return likedBySimilarUsers; }
+    public void setLikedBySimilarUsers(long likedBySimilarUsers) { this.likedBySimilarUsers = likedBySimilarUsers; }
+
+    public long getContentScore() { return contentScore; }
+    public void setContentScore(long contentScore) { this.contentScore = contentScore; }
+
+    public long getFinalScore() { return finalScore; }
+    public void setFinalScore(long finalScore) { this.finalScore = finalScore; }
+}
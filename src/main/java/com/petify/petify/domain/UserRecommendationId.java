@@ -0,0 +1,30 @@
+package com.petify.petify.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class UserRecommendationId implements Serializable {
+
+    private Long userId;
+    private Long listingId;
+
+    public UserRecommendationId() {}
+
+    public UserRecommendationId(Long userId, Long listingId) {
+        this.userId = userId;
+        this.listingId = listingId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserRecommendationId that)) return false;
+        return Objects.equals(userId, that.userId)
+                && Objects.equals(listingId, that.listingId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, listingId);
+    }
+}
@@ -0,0 +1,29 @@
+package com.petify.petify.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_recommendation_runs")
+public class UserRecommendationRun {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    public UserRecommendationRun() {}
+
+    public UserRecommendationRun(Long userId, LocalDateTime computedAt) {
+        this.userId = userId;
+        this.computedAt = computedAt;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
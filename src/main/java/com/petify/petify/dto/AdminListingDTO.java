@@ -0,0 +1,129 @@
+package com.petify.petify.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Listing row of the admin listings view, with owner and animal resolved in the same query
+ */
+public class AdminListingDTO {
+    private Long listingId;
+    private Long animalId;
+    private String animalName;
+    private String species;
+    private Long ownerId;
+    private String ownerName;
+    private String ownerUsername;
+    private BigDecimal price;
+    private String status;
+    private String description;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public AdminListingDTO() {}
+
+    public AdminListingDTO(Long listingId, Long animalId, String animalName, String species,
+                           Long ownerId, String ownerFirstName, String ownerLastName, String ownerUsername,
+                           BigDecimal price, String status, String description, LocalDateTime createdAt) {
+        this.listingId = listingId;
+        this.animalId = animalId;
+        this.animalName = animalName;
+        this.species = species;
+        this.ownerId = ownerId;
+        this.ownerName = ownerFirstName + " " + ownerLastName;
+        this.ownerUsername = ownerUsername;
+        this.price = price;
+        this.status = status;
+        this.description = description;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getListingId() {
+        return listingId;
+    }
+
+    public void setListingId(Long listingId) {
+        this.listingId = listingId;
+    }
+
+    public Long getAnimalId() {
+        return animalId;
+    }
+
+    public void setAnimalId(Long animalId) {
+        this.animalId = animalId;
+    }
+
+    public String getAnimalName() {
+        return animalName;
+    }
+
+    public void setAnimalName(String animalName) {
+        this.animalName = animalName;
+    }
+
+    public String getSpecies() {
+        return species;
+    }
+
+    public void setSpecies(String species) {
+        this.species = species;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getOwnerName() {
+        return ownerName;
+    }
+
+    public void setOwnerName(String ownerName) {
+        this.ownerName = ownerName;
+    }
+
+    public String getOwnerUsername() {
+        return ownerUsername;
+    }
+
+    public void setOwnerUsername(String ownerUsername) {
+        this.ownerUsername = ownerUsername;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
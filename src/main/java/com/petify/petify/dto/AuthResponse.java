@@ -2,6 +2,8 @@ package com.petify.petify.dto;
 
 import com.petify.petify.domain.UserType;
 
+import java.time.Instant;
+
 public class AuthResponse {
     private Long userId;
     private String username;
@@ -9,6 +11,8 @@ public class AuthResponse {
     private String firstName;
     private String lastName;
     private UserType userType;
+    private String token;
+    private Instant expiresAt;
 
     // Constructors
     public AuthResponse() {
@@ -72,4 +76,20 @@ public class AuthResponse {
     public void setUserType(UserType userType) {
         this.userType = userType;
     }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
 }
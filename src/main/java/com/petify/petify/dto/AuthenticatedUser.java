@@ -0,0 +1,9 @@
+package com.petify.petify.dto;
+
+import com.petify.petify.domain.UserType;
+
+/**
+ * Caller identity taken from a verified access token
+ */
+public record AuthenticatedUser(Long userId, UserType userType) {
+}
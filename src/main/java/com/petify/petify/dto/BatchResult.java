@@ -0,0 +1,37 @@
+package com.petify.petify.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Result of a multi-get: the found items in the order their IDs were requested, and the requested
+ * IDs that do not exist. Duplicate IDs are returned once.
+ */
+public record BatchResult<T>(List<T> items, List<Long> missing) {
+
+    /**
+     * Arrange the rows of an unordered {@code id in (...)} query in request order
+     */
+    public static <T> BatchResult<T> of(Collection<Long> ids, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<T> items = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            T item = byId.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchResult<>(items, missing);
+    }
+}
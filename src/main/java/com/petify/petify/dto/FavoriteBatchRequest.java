@@ -0,0 +1,24 @@
+package com.petify.petify.dto;
+
+import java.util.List;
+
+public class FavoriteBatchRequest {
+    private List<Long> listingIds;
+
+    // Constructors
+    public FavoriteBatchRequest() {
+    }
+
+    public FavoriteBatchRequest(List<Long> listingIds) {
+        this.listingIds = listingIds;
+    }
+
+    // Getters and Setters
+    public List<Long> getListingIds() {
+        return listingIds;
+    }
+
+    public void setListingIds(List<Long> listingIds) {
+        this.listingIds = listingIds;
+    }
+}
@@ -11,6 +11,8 @@ public class ListingDTO {
     private BigDecimal price;
     private String status;
     private LocalDateTime createdAt;
+    // How many clients have saved the listing
+    private Long favoriteCount = 0L;
 
     // Constructors
     public ListingDTO() {}
@@ -25,6 +27,12 @@ public class ListingDTO {
         this.createdAt = createdAt;
     }
 
+    public ListingDTO(Long listingId, Long ownerId, Long animalId, String description, BigDecimal price, String status,
+                      LocalDateTime createdAt, Long favoriteCount) {
+        this(listingId, ownerId, animalId, description, price, status, createdAt);
+        this.favoriteCount = favoriteCount;
+    }
+
     // Getters and Setters
     public Long getListingId() {
         return listingId;
@@ -81,4 +89,12 @@ public class ListingDTO {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    public void setFavoriteCount(Long favoriteCount) {
+        this.favoriteCount = favoriteCount;
+    }
 }
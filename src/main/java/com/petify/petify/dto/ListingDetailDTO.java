@@ -0,0 +1,15 @@
+package com.petify.petify.dto;
+
+import java.util.List;
+
+/**
+ * Everything a listing page shows, in one response. {@code favorited} is null when the request
+ * does not say who is viewing.
+ */
+public record ListingDetailDTO(ListingDTO listing,
+                               AnimalResponseDTO pet,
+                               UserDTO owner,
+                               boolean ownerVerified,
+                               List<ReviewDTO> ownerReviews,
+                               Boolean favorited) {
+}
@@ -0,0 +1,17 @@
+package com.petify.petify.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filters of a listing search; null fields match everything. Attribute values are matched
+ * case-insensitively, prices are inclusive and createdAfter is exclusive.
+ */
+public record ListingSearchCriteria(String species,
+                                    String breed,
+                                    String type,
+                                    String location,
+                                    BigDecimal minPrice,
+                                    BigDecimal maxPrice,
+                                    LocalDateTime createdAfter) {
+}
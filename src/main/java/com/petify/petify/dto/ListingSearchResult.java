@@ -0,0 +1,21 @@
+package com.petify.petify.dto;
+
+import com.petify.petify.repo.PublicListingCardView;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of listing search results, newest first. {@code total} and the facet counts cover all
+ * matching listings, not just this page; facets list the most frequent values first.
+ */
+public record ListingSearchResult(List<PublicListingCardView> items,
+                                  String nextCursor,
+                                  int total,
+                                  Facets facets) {
+
+    public record Facets(Map<String, Integer> species,
+                         Map<String, Integer> breed,
+                         Map<String, Integer> location) {
+    }
+}
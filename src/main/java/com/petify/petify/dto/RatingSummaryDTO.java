@@ -0,0 +1,34 @@
+package com.petify.petify.dto;
+
+import com.petify.petify.domain.UserRatingSummary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ratings a user has received: number of reviews, average (null without reviews) and how many
+ * reviews gave each star rating, 1 to 5.
+ */
+public record RatingSummaryDTO(Long userId, int reviewCount, Double averageRating, Map<Integer, Integer> histogram) {
+
+    public static RatingSummaryDTO of(UserRatingSummary summary) {
+        Double average = summary.getReviewCount() > 0 ? (double) summary.getRatingSum() / summary.getReviewCount() : null;
+        return new RatingSummaryDTO(summary.getUserId(), summary.getReviewCount(), average, histogram(
+            summary.getRating1(), summary.getRating2(), summary.getRating3(), summary.getRating4(), summary.getRating5()));
+    }
+
+    /**
+     * Summary of a user nobody has reviewed yet
+     */
+    public static RatingSummaryDTO empty(Long userId) {
+        return new RatingSummaryDTO(userId, 0, null, histogram(0, 0, 0, 0, 0));
+    }
+
+    private static Map<Integer, Integer> histogram(int... counts) {
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        for (int stars = 1; stars <= counts.length; stars++) {
+            histogram.put(stars, counts[stars - 1]);
+        }
+        return histogram;
+    }
+}
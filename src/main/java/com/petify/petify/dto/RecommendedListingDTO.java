@@ -0,0 +1,98 @@
+package com.petify.petify.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class RecommendedListingDTO extends ListingDTO {
+    private String title;
+    private String species;
+    private String breed;
+    private String location;
+    private long cfScore;
+    private long likedBySimilarUsers;
+    private long contentScore;
+    private long finalScore;
+
+    // Constructors
+    public RecommendedListingDTO() {}
+
+    public RecommendedListingDTO(Long listingId, Long ownerId, Long animalId, String description, BigDecimal price,
+                                 String status, LocalDateTime createdAt, String title, String species, String breed,
+                                 String location, long cfScore, long likedBySimilarUsers, long contentScore,
+                                 long finalScore) {
+        super(listingId, ownerId, animalId, description, price, status, createdAt);
+        this.title = title;
+        this.species = species;
+        this.breed = breed;
+        this.location = location;
+        this.cfScore = cfScore;
+        this.likedBySimilarUsers = likedBySimilarUsers;
+        this.contentScore = contentScore;
+        this.finalScore = finalScore;
+    }
+
+    // Getters and Setters
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getSpecies() {
+        return species;
+    }
+
+    public void setSpecies(String species) {
+        this.species = species;
+    }
+
+    public String getBreed() {
+        return breed;
+    }
+
+    public void setBreed(String breed) {
+        this.breed = breed;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public long getCfScore() {
+        return cfScore;
+    }
+
+    public void setCfScore(long cfScore) {
+        this.cfScore = cfScore;
+    }
+
+    public long getLikedBySimilarUsers() {
+        return likedBySimilarUsers;
+    }
+
+    public void setLikedBySimilarUsers(long likedBySimilarUsers) {
+        this.likedBySimilarUsers = likedBySimilarUsers;
+    }
+
+    public long getContentScore() {
+        return contentScore;
+    }
+
+    public void setContentScore(long contentScore) {
+        this.contentScore = contentScore;
+    }
+
+    public long getFinalScore() {
+        return finalScore;
+    }
+
+    public void setFinalScore(long finalScore) {
+        this.finalScore = finalScore;
+    }
+}
@@ -0,0 +1,9 @@
+package com.petify.petify.dto;
+
+import com.petify.petify.repo.PublicListingCardView;
+
+/**
+ * A trending listing card with its decayed activity score at the last ranking
+ */
+public record TrendingListingDTO(PublicListingCardView listing, double score) {
+}
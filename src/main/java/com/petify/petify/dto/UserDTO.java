@@ -13,6 +13,8 @@ public class UserDTO {
     private String userType;
     private boolean isBlocked;
     private String blockedReason;
+    // Only filled in for single-user (profile) responses
+    private RatingSummaryDTO ratingSummary;
 
     // Constructors
     public UserDTO() {
@@ -130,4 +132,12 @@ public class UserDTO {
     public void setBlockedReason(String blockedReason) {
         this.blockedReason = blockedReason;
     }
+
+    public RatingSummaryDTO getRatingSummary() {
+        return ratingSummary;
+    }
+
+    public void setRatingSummary(RatingSummaryDTO ratingSummary) {
+        this.ratingSummary = ratingSummary;
+    }
 }
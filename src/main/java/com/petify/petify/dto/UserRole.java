@@ -0,0 +1,15 @@
+package com.petify.petify.dto;
+
+import com.petify.petify.domain.UserType;
+
+/**
+ * Resolved role of a user (ADMIN over OWNER over CLIENT) and the block status of their client row.
+ * {@code blockedReason} is null when none was recorded.
+ */
+public record UserRole(UserType userType, boolean blocked, String blockedReason) {
+
+    // Used by the JPQL constructor expression in UserRepository
+    public UserRole(String userType, Boolean blocked, String blockedReason) {
+        this(UserType.valueOf(userType), Boolean.TRUE.equals(blocked), blockedReason);
+    }
+}
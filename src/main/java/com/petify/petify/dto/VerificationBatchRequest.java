@@ -0,0 +1,24 @@
+package com.petify.petify.dto;
+
+import java.util.List;
+
+public class VerificationBatchRequest {
+    private List<Long> userIds;
+
+    // Constructors
+    public VerificationBatchRequest() {
+    }
+
+    public VerificationBatchRequest(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+
+    // Getters and Setters
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+}
@@ -0,0 +1,8 @@
+package com.petify.petify.event;
+
+/**
+ * Published by FavoritesService after a client adds or removes a favorite listing.
+ * Listeners react after the surrounding transaction commits.
+ */
+public record FavoriteChangedEvent(Long userId, Long listingId, boolean favorited) {
+}
@@ -0,0 +1,16 @@
+package com.petify.petify.event;
+
+import com.petify.petify.dto.ListingDTO;
+
+/**
+ * Published by ListingService whenever a listing is created, changes status or is deleted.
+ * The listing carries the state after the change (the last known state for deletions).
+ */
+public record ListingChangedEvent(Type type, ListingDTO listing) {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+}
@@ -0,0 +1,10 @@
+package com.petify.petify.event;
+
+import com.petify.petify.dto.AnimalResponseDTO;
+
+/**
+ * Published by PetService when a pet is added. Pets are not edited afterwards, so this is the
+ * only change their attributes go through.
+ */
+public record PetAddedEvent(AnimalResponseDTO pet) {
+}
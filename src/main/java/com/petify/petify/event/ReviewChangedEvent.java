@@ -0,0 +1,12 @@
+package com.petify.petify.event;
+
+/**
+ * Published by ReviewService when a review is created or (soft) deleted
+ */
+public record ReviewChangedEvent(Type type, long reviewId, long targetUserId, int rating) {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+}
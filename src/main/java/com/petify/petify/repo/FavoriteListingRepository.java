@@ -10,13 +10,22 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 @Repository
 public interface FavoriteListingRepository extends JpaRepository<FavoriteListing, FavoriteListingId> {
     List<FavoriteListing> findByClientUserId(Long clientId);
     Optional<FavoriteListing> findByClientAndListing(Client client, Listing listing);
+    // Derived exists queries load the entity and its eager associations; count the key instead
+    @Query("select count(f) > 0 from FavoriteListing f where f.client.userId = :clientId and f.listing.listingId = :listingId")
+    boolean existsByClientUserIdAndListingListingId(@Param("clientId") Long clientId, @Param("listingId") Long listingId);
     @Query("""
 SELECT new com.petify.petify.dto.ListingDTO(
     l.listingId,
@@ -25,7 +34,8 @@ SELECT new com.petify.petify.dto.ListingDTO(
     l.description,
     l.price,
     l.status,
-    l.createdAt
+    l.createdAt,
+    coalesce((select sum(c.favoriteCount) from ListingFavoriteCount c where c.listingId = l.listingId), 0L)
 )
 FROM FavoriteListing f
 JOIN f.listing l
@@ -33,4 +43,37 @@ WHERE f.client.userId = :userId
 ORDER BY l.createdAt DESC
 """)
     List<ListingDTO> findFavoritedListingDTOs(@Param("userId") Long userId);
+
+    /**
+     * IDs of the listings a client has favorited, ascending; read from the primary key alone
+     */
+    @Query("select f.listing.listingId from FavoriteListing f where f.client.userId = :clientId order by f.listing.listingId")
+    List<Long> findListingIdsByClientId(@Param("clientId") Long clientId);
+
+    /**
+     * Favorite a listing in one statement; a repeat is a no-op and an unknown client or listing
+     * fails on the foreign key. Returns 1 if the row was inserted, 0 if it already existed.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO favorite_listings (client_id, listing_id)
+        VALUES (:clientId, :listingId)
+        ON CONFLICT (client_id, listing_id) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("clientId") Long clientId, @Param("listingId") Long listingId);
+
+    /**
+     * Unfavorite a listing in one statement. Returns 1 if a row was deleted, 0 if there was none.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM favorite_listings WHERE client_id = :clientId AND listing_id = :listingId", nativeQuery = true)
+    int deleteByKey(@Param("clientId") Long clientId, @Param("listingId") Long listingId);
+
+    /**
+     * Every (client_id, listing_id) pair, streamed so the whole table is never materialized
+     * as entities. Must be consumed inside a transaction.
+     */
+    @Query("select f.client.userId, f.listing.listingId from FavoriteListing f")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamClientListingPairs();
 }
@@ -0,0 +1,48 @@
+package com.petify.petify.repo;
+
+import com.petify.petify.domain.ListingFavoriteCount;
+import com.petify.petify.domain.ListingFavoriteCountId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ListingFavoriteCountRepository extends JpaRepository<ListingFavoriteCount, ListingFavoriteCountId> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO listing_favorite_counts (listing_id, stripe, favorite_count)
+        VALUES (:listing_id, :stripe, :delta)
+        ON CONFLICT (listing_id, stripe) DO UPDATE
+        SET favorite_count = listing_favorite_counts.favorite_count + EXCLUDED.favorite_count
+        """, nativeQuery = true)
+    int addFavorites(@Param("listing_id") Long listingId, @Param("stripe") short stripe, @Param("delta") long delta);
+
+    @Query("select coalesce(sum(c.favoriteCount), 0) from ListingFavoriteCount c where c.listingId = :listingId")
+    long countFavorites(@Param("listingId") Long listingId);
+
+    /**
+     * Fold every stripe other than 0 into stripe 0, so each listing is back to a single row.
+     * Returns the number of listings whose stripes were merged.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        WITH merged AS (
+            DELETE FROM listing_favorite_counts
+            WHERE stripe <> 0
+            RETURNING listing_id, favorite_count
+        )
+        INSERT INTO listing_favorite_counts (listing_id, stripe, favorite_count)
+        SELECT listing_id, 0, SUM(favorite_count)
+        FROM merged
+        GROUP BY listing_id
+        ON CONFLICT (listing_id, stripe) DO UPDATE
+        SET favorite_count = listing_favorite_counts.favorite_count + EXCLUDED.favorite_count
+        """, nativeQuery = true)
+    int mergeStripes();
+}
@@ -2,12 +2,22 @@ package com.petify.petify.repo;
 
 import com.petify.petify.domain.Listing;
 import com.petify.petify.domain.Owner;
+import com.petify.petify.dto.AdminListingDTO;
+import com.petify.petify.dto.ListingDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 import java.util.Map;
 
 @Repository
@@ -15,6 +25,77 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
     List<Listing> findByOwner(Owner owner);
     List<Listing> findByStatus(String status);
 
+    /**
+     * First page of the active listing feed, newest first
+     */
+    @Query("""
+        select new com.petify.petify.dto.ListingDTO(
+            l.listingId, l.owner.userId, l.animalId, l.description, l.price, l.status, l.createdAt,
+            coalesce((select sum(c.favoriteCount) from ListingFavoriteCount c where c.listingId = l.listingId), 0L))
+        from Listing l
+        where l.status = 'ACTIVE'
+        order by l.createdAt desc, l.listingId desc
+        """)
+    List<ListingDTO> findActiveListingDTOs(Limit limit);
+
+    /**
+     * Active listing feed after the given (createdAt, listingId) position
+     */
+    @Query("""
+        select new com.petify.petify.dto.ListingDTO(
+            l.listingId, l.owner.userId, l.animalId, l.description, l.price, l.status, l.createdAt,
+            coalesce((select sum(c.favoriteCount) from ListingFavoriteCount c where c.listingId = l.listingId), 0L))
+        from Listing l
+        where l.status = 'ACTIVE'
+          and (l.createdAt, l.listingId) < (:createdAt, :listingId)
+        order by l.createdAt desc, l.listingId desc
+        """)
+    List<ListingDTO> findActiveListingDTOsBefore(@Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("listingId") Long listingId,
+                                                 Limit limit);
+
+    /**
+     * The given listings in any status; unordered
+     */
+    @Query("""
+        select new com.petify.petify.dto.ListingDTO(
+            l.listingId, l.owner.userId, l.animalId, l.description, l.price, l.status, l.createdAt,
+            coalesce((select sum(c.favoriteCount) from ListingFavoriteCount c where c.listingId = l.listingId), 0L))
+        from Listing l
+        where l.listingId in :listingIds
+        """)
+    List<ListingDTO> findListingDTOsByIds(@Param("listingIds") Collection<Long> listingIds);
+
+    @Query("""
+        select new com.petify.petify.dto.ListingDTO(
+            l.listingId, l.owner.userId, l.animalId, l.description, l.price, l.status, l.createdAt,
+            coalesce((select sum(c.favoriteCount) from ListingFavoriteCount c where c.listingId = l.listingId), 0L))
+        from Listing l
+        where l.listingId = :listingId
+        """)
+    Optional<ListingDTO> findListingDTOById(@Param("listingId") Long listingId);
+
+    /**
+     * An owner's listings in any status, newest first
+     */
+    @Query("""
+        select new com.petify.petify.dto.ListingDTO(
+            l.listingId, l.owner.userId, l.animalId, l.description, l.price, l.status, l.createdAt,
+            coalesce((select sum(c.favoriteCount) from ListingFavoriteCount c where c.listingId = l.listingId), 0L))
+        from Listing l
+        where l.owner.userId = :ownerId
+        order by l.createdAt desc, l.listingId desc
+        """)
+    List<ListingDTO> findListingDTOsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("""
+        select new com.petify.petify.dto.ListingDTO(
+            l.listingId, l.owner.userId, l.animalId, l.description, l.price, l.status, l.createdAt,
+            coalesce((select sum(c.favoriteCount) from ListingFavoriteCount c where c.listingId = l.listingId), 0L))
+        from Listing l
+        """)
+    List<ListingDTO> findAllListingDTOs();
+
     @Query(value = """
         WITH
             my_likes AS (
@@ -28,7 +109,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
                 FROM favorite_listings fl
                          JOIN listings l ON l.listing_id = fl.listing_id
                 WHERE fl.client_id = :user_id
-                ORDER BY l.created_at DESC
+                ORDER BY l.created_at DESC, l.listing_id DESC
                 LIMIT 10
             ),
 
@@ -91,11 +172,17 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
 
         SELECT
             l.listing_id,
+            l.owner_id,
+            l.animal_id,
+            l.description,
+            l.price,
+            l.status,
+            l.created_at,
+
             a.name AS title,
             a.species,
             a.breed,
             a.located_name AS location,
-            l.created_at,
 
             m.cf_score,
             m.liked_by_similar_users,
@@ -108,8 +195,110 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
                  JOIN animals  a ON a.animal_id = l.animal_id
         WHERE l.status = 'ACTIVE'
           AND l.owner_id <> :user_id
-        ORDER BY final_score DESC, l.created_at DESC
+        ORDER BY final_score DESC, l.created_at DESC, l.listing_id DESC
         LIMIT 20
         """, nativeQuery = true)
     List<Object[]> findRecommendedListings(@Param("user_id") Long userId);
+
+    /**
+     * (listing_id, animal_id, owner_id, status, created_at) of every listing, streamed for
+     * the in-memory content index. Must be consumed inside a transaction.
+     */
+    @Query("select l.listingId, l.animalId, l.owner.userId, l.status, l.createdAt from Listing l")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamIndexEntries();
+
+    /**
+     * (listing_id, animal_id, price, created_at) of every ACTIVE listing in feed order, streamed
+     * for the in-memory search index. Must be consumed inside a transaction.
+     */
+    @Query("""
+        select l.listingId, l.animalId, l.price, l.createdAt
+        from Listing l
+        where l.status = 'ACTIVE'
+        order by l.createdAt, l.listingId
+        """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamActiveSearchEntries();
+
+    /**
+     * Listing columns of findRecommendedListings (without scores) for the given candidates,
+     * restricted to ACTIVE listings not owned by the user
+     */
+    @Query(value = """
+        SELECT
+            l.listing_id,
+            l.owner_id,
+            l.animal_id,
+            l.description,
+            l.price,
+            l.status,
+            l.created_at,
+
+            a.name AS title,
+            a.species,
+            a.breed,
+            a.located_name AS location
+
+        FROM listings l
+                 JOIN animals a ON a.animal_id = l.animal_id
+        WHERE l.listing_id IN (:listing_ids)
+          AND l.status = 'ACTIVE'
+          AND l.owner_id <> :user_id
+        """, nativeQuery = true)
+    List<Object[]> findRecommendationCandidates(@Param("listing_ids") Collection<Long> listingIds,
+                                                @Param("user_id") Long userId);
+
+    /**
+     * ACTIVE listings whose search_document (pet name, breed, species, description) matches the
+     * tsquery, best ranked first, as (listing_id, price, description, created_at, animal_id, owner_id,
+     * favorite_count)
+     * @param query a to_tsquery expression in the 'simple' configuration
+     */
+    @Query(value = """
+        SELECT l.listing_id, l.price, l.description, l.created_at, l.animal_id, l.owner_id,
+               COALESCE((SELECT SUM(c.favorite_count) FROM listing_favorite_counts c
+                         WHERE c.listing_id = l.listing_id), 0) AS favorite_count
+        FROM listings l
+        WHERE l.status = 'ACTIVE'
+          AND l.search_document @@ to_tsquery('simple', :query)
+        ORDER BY ts_rank_cd(l.search_document, to_tsquery('simple', :query)) DESC,
+                 l.created_at DESC,
+                 l.listing_id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Object[]> searchActiveListings(@Param("query") String query, @Param("limit") int limit);
+
+    /**
+     * Admin view of listings with ID greater than {@code after}, in ID order, with owner and
+     * animal joined in. Null {@code status} / {@code ownerId} match every listing.
+     */
+    @Query("""
+        select new com.petify.petify.dto.AdminListingDTO(
+            l.listingId,
+            l.animalId,
+            p.name,
+            p.species,
+            u.userId,
+            u.firstName,
+            u.lastName,
+            u.username,
+            l.price,
+            l.status,
+            l.description,
+            l.createdAt
+        )
+        from Listing l
+        join l.owner o
+        join o.user u
+        left join Pet p on p.animalId = l.animalId
+        where l.listingId > :after
+          and (:status is null or l.status = :status)
+          and (:ownerId is null or o.userId = :ownerId)
+        order by l.listingId
+        """)
+    List<AdminListingDTO> findAdminListingsAfter(@Param("after") Long after,
+                                                 @Param("status") String status,
+                                                 @Param("ownerId") Long ownerId,
+                                                 Limit limit);
 }
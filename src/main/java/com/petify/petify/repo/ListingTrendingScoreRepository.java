@@ -0,0 +1,21 @@
+package com.petify.petify.repo;
+
+import com.petify.petify.domain.ListingTrendingScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ListingTrendingScoreRepository extends JpaRepository<ListingTrendingScore, Long> {
+
+    /**
+     * Checkpointed scores of listings that are still active
+     */
+    @Query("""
+        select s from ListingTrendingScore s
+        where exists (select 1 from Listing l where l.listingId = s.listingId and l.status = 'ACTIVE')
+        """)
+    List<ListingTrendingScore> findOfActiveListings();
+}
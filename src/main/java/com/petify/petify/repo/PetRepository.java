@@ -1,13 +1,49 @@
 package com.petify.petify.repo;
 
 import com.petify.petify.domain.Pet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PetRepository extends JpaRepository<Pet, Long> {
     List<Pet> findByOwnerUserId(Long userId);
 
+    /**
+     * The given pets with their owner fetched in the same statement (findAllById would load each
+     * owner separately); unordered
+     */
+    @Query("""
+        select p
+        from Pet p
+        join fetch p.owner o
+        join fetch o.user u
+        left join fetch u.client
+        where p.animalId in :animalIds
+        """)
+    List<Pet> findAllWithOwnerByIds(@Param("animalIds") Collection<Long> animalIds);
+
+    /**
+     * (animal_id, species, breed, located_name) of every animal, streamed for the in-memory
+     * content index. Must be consumed inside a transaction.
+     */
+    @Query("select p.animalId, p.species, p.breed, p.locatedName from Pet p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamContentAttributes();
+
+    /**
+     * (animal_id, species, breed, type, located_name) of every animal, streamed for the in-memory
+     * search index. Must be consumed inside a transaction.
+     */
+    @Query("select p.animalId, p.species, p.breed, p.type, p.locatedName from Pet p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamSearchAttributes();
 }
@@ -10,15 +10,24 @@ public class PublicListingCardView {
     private LocalDateTime createdAt;
     private Long animalId;
     private Long ownerId;
+    private Long favoriteCount;
 
     public PublicListingCardView(Long listingId, BigDecimal price, String description,
-                                  LocalDateTime createdAt, Long animalId, Long ownerId) {
+                                  LocalDateTime createdAt, Long animalId, Long ownerId, Long favoriteCount) {
         this.listingId = listingId;
         this.price = price;
         this.description = description;
         this.createdAt = createdAt;
         this.animalId = animalId;
         this.ownerId = ownerId;
+        this.favoriteCount = favoriteCount;
+    }
+
+    /**
+     * A copy of this card with another favorite count
+     */
+    public PublicListingCardView withFavoriteCount(Long favoriteCount) {
+        return new PublicListingCardView(listingId, price, description, createdAt, animalId, ownerId, favoriteCount);
     }
 
     public Long getListingId() {
@@ -44,5 +53,9 @@ public class PublicListingCardView {
     public Long getOwnerId() {
         return ownerId;
     }
+
+    public Long getFavoriteCount() {
+        return favoriteCount;
+    }
 }
 
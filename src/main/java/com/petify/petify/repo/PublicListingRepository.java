@@ -1,7 +1,10 @@
 package com.petify.petify.repo;
 import com.petify.petify.domain.Listing;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface PublicListingRepository extends JpaRepository<Listing, Long> {
@@ -13,11 +16,53 @@ public interface PublicListingRepository extends JpaRepository<Listing, Long> {
           l.description,
           l.createdAt,
           l.animalId,
-          l.owner.userId
+          l.owner.userId,
+          coalesce((select sum(c.favoriteCount) from ListingFavoriteCount c where c.listingId = l.listingId), 0L)
         )
         FROM Listing l
         WHERE l.status = 'ACTIVE'
-        ORDER BY l.createdAt DESC
+        ORDER BY l.createdAt DESC, l.listingId DESC
         """)
-    List<PublicListingCardView> findActiveListingCards();
-}
\ No newline at end of file
+    List<PublicListingCardView> findActiveListingCards(Limit limit);
+
+    /**
+     * Active listing cards after the given (createdAt, listingId) position of the feed
+     */
+    @Query("""
+        SELECT new com.petify.petify.repo.PublicListingCardView(
+          l.listingId,
+          l.price,
+          l.description,
+          l.createdAt,
+          l.animalId,
+          l.owner.userId,
+          coalesce((select sum(c.favoriteCount) from ListingFavoriteCount c where c.listingId = l.listingId), 0L)
+        )
+        FROM Listing l
+        WHERE l.status = 'ACTIVE'
+          AND (l.createdAt, l.listingId) < (:createdAt, :listingId)
+        ORDER BY l.createdAt DESC, l.listingId DESC
+        """)
+    List<PublicListingCardView> findActiveListingCardsBefore(@Param("createdAt") LocalDateTime createdAt,
+                                                             @Param("listingId") Long listingId,
+                                                             Limit limit);
+
+    /**
+     * Cards of the given listings that are still ACTIVE, in no particular order
+     */
+    @Query("""
+        SELECT new com.petify.petify.repo.PublicListingCardView(
+          l.listingId,
+          l.price,
+          l.description,
+          l.createdAt,
+          l.animalId,
+          l.owner.userId,
+          coalesce((select sum(c.favoriteCount) from ListingFavoriteCount c where c.listingId = l.listingId), 0L)
+        )
+        FROM Listing l
+        WHERE l.status = 'ACTIVE'
+          AND l.listingId IN :listingIds
+        """)
+    List<PublicListingCardView> findActiveListingCardsByIds(@Param("listingIds") Collection<Long> listingIds);
+}
@@ -2,8 +2,21 @@ package com.petify.petify.repo;
 
 import com.petify.petify.domain.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+
+    /**
+     * Mark a review deleted unless it already is. Returns 1 if it was deleted now, 0 otherwise;
+     * the row lock makes concurrent deletes of the same review agree on which one did it.
+     */
+    @Modifying
+    @Query("update Review r set r.isDeleted = true, r.updatedAt = :updatedAt where r.reviewId = :reviewId and r.isDeleted = false")
+    int softDelete(@Param("reviewId") Long reviewId, @Param("updatedAt") LocalDateTime updatedAt);
 }
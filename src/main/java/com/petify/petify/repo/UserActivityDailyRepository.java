@@ -0,0 +1,101 @@
+package com.petify.petify.repo;
+
+import com.petify.petify.domain.UserActivityDaily;
+import com.petify.petify.domain.UserActivityDailyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface UserActivityDailyRepository extends JpaRepository<UserActivityDaily, UserActivityDailyId> {
+
+    /**
+     * Add to a user's counters for one day, creating the row on first activity
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO user_activity_daily (user_id, activity_date, listings_created, reviews_left)
+        VALUES (:user_id, :activity_date, :listings_created, :reviews_left)
+        ON CONFLICT (user_id, activity_date) DO UPDATE
+        SET listings_created = user_activity_daily.listings_created + EXCLUDED.listings_created,
+            reviews_left     = user_activity_daily.reviews_left + EXCLUDED.reviews_left
+        """, nativeQuery = true)
+    int addActivity(@Param("user_id") Long userId,
+                    @Param("activity_date") LocalDate activityDate,
+                    @Param("listings_created") int listingsCreated,
+                    @Param("reviews_left") int reviewsLeft);
+
+    /**
+     * Recount the daily rows since {@code since} for users with IDs in [from, to] from
+     * listings and reviews, overwriting whatever was there
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO user_activity_daily (user_id, activity_date, listings_created, reviews_left)
+        SELECT a.user_id, a.activity_date, SUM(a.listings_created), SUM(a.reviews_left)
+        FROM (
+            SELECT l.owner_id AS user_id, CAST(l.created_at AS DATE) AS activity_date,
+                   1 AS listings_created, 0 AS reviews_left
+            FROM listings l
+            WHERE l.owner_id BETWEEN :from_user_id AND :to_user_id
+              AND l.created_at >= :since
+            UNION ALL
+            SELECT r.reviewer_id, CAST(r.created_at AS DATE), 0, 1
+            FROM reviews r
+            WHERE r.reviewer_id BETWEEN :from_user_id AND :to_user_id
+              AND r.created_at >= :since
+        ) a
+        GROUP BY a.user_id, a.activity_date
+        ON CONFLICT (user_id, activity_date) DO UPDATE
+        SET listings_created = EXCLUDED.listings_created,
+            reviews_left     = EXCLUDED.reviews_left
+        """, nativeQuery = true)
+    int backfill(@Param("from_user_id") Long fromUserId,
+                 @Param("to_user_id") Long toUserId,
+                 @Param("since") LocalDate since);
+
+    @Modifying
+    @Transactional
+    @Query("delete from UserActivityDaily d where d.activityDate < :before")
+    int deleteOlderThan(@Param("before") LocalDate before);
+
+    /**
+     * Top users by activity score: listings×5 + reviews×3 over the last 30 days of rollups,
+     * done appointments×2 − no-shows×2 over the last 30 days, plus all-time favorites.
+     * Only users with some activity qualify; ties go to the lower user ID.
+     */
+    @Query(value = """
+        SELECT activity.user_id
+        FROM (
+            SELECT d.user_id,
+                   d.listings_created * 5 + d.reviews_left * 3 AS score,
+                   d.listings_created + d.reviews_left         AS activity
+            FROM user_activity_daily d
+            WHERE d.activity_date > CURRENT_DATE - 30
+            UNION ALL
+            SELECT a.responsible_owner_id,
+                   CASE a.status WHEN 'DONE' THEN 2 WHEN 'NO_SHOW' THEN -2 ELSE 0 END,
+                   1
+            FROM appointments a
+            WHERE a.date_time >= NOW() - INTERVAL '30 days'
+              AND a.date_time < NOW()
+            UNION ALL
+            SELECT t.user_id, t.favorites_saved, t.favorites_saved
+            FROM user_activity_totals t
+            WHERE t.favorites_saved > 0
+        ) activity
+        GROUP BY activity.user_id
+        HAVING SUM(activity.activity) > 0
+        ORDER BY SUM(activity.score) DESC, activity.user_id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findTopActiveUserIds(@Param("limit") int limit);
+}
@@ -0,0 +1,58 @@
+package com.petify.petify.repo;
+
+import com.petify.petify.domain.UserActivityTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface UserActivityTotalRepository extends JpaRepository<UserActivityTotal, Long> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO user_activity_totals (user_id, favorites_saved)
+        VALUES (:user_id, :delta)
+        ON CONFLICT (user_id) DO UPDATE
+        SET favorites_saved = user_activity_totals.favorites_saved + EXCLUDED.favorites_saved
+        """, nativeQuery = true)
+    int addFavorites(@Param("user_id") Long userId, @Param("delta") int delta);
+
+    /**
+     * Take back the favorites that disappear with a listing (favorite_listings cascades).
+     * Must run before the listing is deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE user_activity_totals t
+        SET favorites_saved = t.favorites_saved - f.removed
+        FROM (
+            SELECT fl.client_id, COUNT(*) AS removed
+            FROM favorite_listings fl
+            WHERE fl.listing_id = :listing_id
+            GROUP BY fl.client_id
+        ) f
+        WHERE t.user_id = f.client_id
+        """, nativeQuery = true)
+    int removeFavoritesOfListing(@Param("listing_id") Long listingId);
+
+    /**
+     * Recount all-time favorites for users with IDs in [from, to], overwriting stored totals
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO user_activity_totals (user_id, favorites_saved)
+        SELECT fl.client_id, COUNT(*)
+        FROM favorite_listings fl
+        WHERE fl.client_id BETWEEN :from_user_id AND :to_user_id
+        GROUP BY fl.client_id
+        ON CONFLICT (user_id) DO UPDATE
+        SET favorites_saved = EXCLUDED.favorites_saved
+        """, nativeQuery = true)
+    int backfill(@Param("from_user_id") Long fromUserId, @Param("to_user_id") Long toUserId);
+}
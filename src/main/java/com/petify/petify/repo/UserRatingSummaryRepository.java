@@ -0,0 +1,37 @@
+package com.petify.petify.repo;
+
+import com.petify.petify.domain.UserRatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface UserRatingSummaryRepository extends JpaRepository<UserRatingSummary, Long> {
+
+    /**
+     * Count a review of the given rating in (delta 1) or out (delta -1) of a user's summary
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO user_rating_summaries (user_id, review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5)
+        VALUES (:user_id, :delta, :delta * :rating,
+                CASE WHEN :rating = 1 THEN :delta ELSE 0 END,
+                CASE WHEN :rating = 2 THEN :delta ELSE 0 END,
+                CASE WHEN :rating = 3 THEN :delta ELSE 0 END,
+                CASE WHEN :rating = 4 THEN :delta ELSE 0 END,
+                CASE WHEN :rating = 5 THEN :delta ELSE 0 END)
+        ON CONFLICT (user_id) DO UPDATE
+        SET review_count = user_rating_summaries.review_count + EXCLUDED.review_count,
+            rating_sum   = user_rating_summaries.rating_sum + EXCLUDED.rating_sum,
+            rating_1     = user_rating_summaries.rating_1 + EXCLUDED.rating_1,
+            rating_2     = user_rating_summaries.rating_2 + EXCLUDED.rating_2,
+            rating_3     = user_rating_summaries.rating_3 + EXCLUDED.rating_3,
+            rating_4     = user_rating_summaries.rating_4 + EXCLUDED.rating_4,
+            rating_5     = user_rating_summaries.rating_5 + EXCLUDED.rating_5
+        """, nativeQuery = true)
+    int addRating(@Param("user_id") Long userId, @Param("rating") int rating, @Param("delta") int delta);
+}
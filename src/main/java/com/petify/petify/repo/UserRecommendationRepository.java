@@ -0,0 +1,77 @@
+package com.petify.petify.repo;
+
+import com.petify.petify.domain.UserRecommendation;
+import com.petify.petify.domain.UserRecommendationId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserRecommendationRepository extends JpaRepository<UserRecommendation, UserRecommendationId> {
+
+    @Modifying
+    @Query("delete from UserRecommendation r where r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Stored recommendations in the same column layout as ListingRepository.findRecommendedListings.
+     * Listings that stopped being ACTIVE since the last refresh are filtered out here.
+     */
+    @Query(value = """
+        SELECT
+            l.listing_id,
+            l.owner_id,
+            l.animal_id,
+            l.description,
+            l.price,
+            l.status,
+            l.created_at,
+
+            a.name AS title,
+            a.species,
+            a.breed,
+            a.located_name AS location,
+
+            r.cf_score,
+            r.liked_by_similar_users,
+            r.content_score,
+            r.final_score
+
+        FROM user_recommendations r
+                 JOIN listings l ON l.listing_id = r.listing_id
+                 JOIN animals  a ON a.animal_id = l.animal_id
+        WHERE r.user_id = :user_id
+          AND l.status = 'ACTIVE'
+        ORDER BY r.rank
+        """, nativeQuery = true)
+    List<Object[]> findStoredRecommendations(@Param("user_id") Long userId);
+
+    @Query("select distinct r.userId from UserRecommendation r where r.listingId = :listingId")
+    List<Long> findUserIdsByListingId(@Param("listingId") Long listingId);
+
+    /**
+     * Users with stored recommendations whose collaborative-filtering input changes when
+     * the given client likes or unlikes the given listing: everyone sharing a liked listing
+     * with that client, plus everyone who liked the listing itself.
+     */
+    @Query(value = """
+        SELECT fl2.client_id
+        FROM favorite_listings fl1
+                 JOIN favorite_listings fl2 ON fl2.listing_id = fl1.listing_id
+                 JOIN user_recommendation_runs rr ON rr.user_id = fl2.client_id
+        WHERE fl1.client_id = :user_id
+          AND fl2.client_id <> :user_id
+        UNION
+        SELECT fl.client_id
+        FROM favorite_listings fl
+                 JOIN user_recommendation_runs rr ON rr.user_id = fl.client_id
+        WHERE fl.listing_id = :listing_id
+          AND fl.client_id <> :user_id
+        """, nativeQuery = true)
+    List<Long> findStoredUsersAffectedByFavorite(@Param("user_id") Long userId,
+                                                 @Param("listing_id") Long listingId);
+}
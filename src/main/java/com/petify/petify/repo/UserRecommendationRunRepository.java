@@ -0,0 +1,9 @@
+package com.petify.petify.repo;
+
+import com.petify.petify.domain.UserRecommendationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserRecommendationRunRepository extends JpaRepository<UserRecommendationRun, Long> {
+}
@@ -20,7 +20,8 @@ public interface UserReviewRepository extends JpaRepository<UserReview, Long> {
         select r
         from UserReview ur
         join ur.review r
-        join fetch r.reviewer
+        join fetch r.reviewer u
+        left join fetch u.client
         where ur.targetUserId = :targetUserId
         and r.isDeleted = false
         order by r.createdAt desc
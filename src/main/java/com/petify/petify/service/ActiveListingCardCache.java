@@ -0,0 +1,272 @@
+package com.petify.petify.service;
+
+import com.petify.petify.dto.CursorPage;
+import com.petify.petify.dto.ListingDTO;
+import com.petify.petify.event.FavoriteChangedEvent;
+import com.petify.petify.event.ListingChangedEvent;
+import com.petify.petify.repo.PublicListingCardView;
+import com.petify.petify.repo.PublicListingRepository;
+import com.petify.petify.util.ListingCursor;
+import com.petify.petify.util.Timestamps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Newest active listing cards, the head of the /api/public/listings feed, kept as an immutable
+ * snapshot. Committed listing changes insert or remove single cards in a new copy of the
+ * snapshot, so feed pages within the head are served without a database round trip; deeper
+ * pages fall back to the keyset query.
+ */
+@Service
+public class ActiveListingCardCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveListingCardCache.class);
+
+    // Feed order: createdAt DESC, listingId DESC
+    private static final Comparator<PublicListingCardView> FEED_ORDER =
+        Comparator.comparing(PublicListingCardView::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(PublicListingCardView::getListingId, Comparator.reverseOrder());
+
+    private final PublicListingRepository publicListingRepository;
+    private final ListingFavoriteCounter favoriteCounter;
+    private final int capacity;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Replaced wholesale by every change; null until first loaded or after a reload is requested
+    private volatile Snapshot snapshot;
+
+    // Serializes writers; readers only read the volatile snapshot
+    private final Object writeLock = new Object();
+    private long version;
+
+    // Orders favorite count refreshes: a count read after taking a ticket includes every change
+    // whose listener took a lower one
+    private final AtomicLong favoriteTickets = new AtomicLong();
+    // Ticket of the count last applied to each card, and the last ticket a snapshot load already
+    // covers; guarded by writeLock
+    private final Map<Long, Long> appliedTickets = new HashMap<>();
+    private long loadedTicket;
+
+    public ActiveListingCardCache(PublicListingRepository publicListingRepository,
+                                  ListingFavoriteCounter favoriteCounter,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${petify.listings.card-cache.size:1000}") int capacity) {
+        this.publicListingRepository = publicListingRepository;
+        this.favoriteCounter = favoriteCounter;
+        this.capacity = capacity;
+        this.hits = Counter.builder("petify.listings.cards.cache")
+            .description("Active listing feed pages served from the card snapshot (hit) or the database (miss)")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("petify.listings.cards.cache")
+            .description("Active listing feed pages served from the card snapshot (hit) or the database (miss)")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder("petify.listings.cards.snapshot.version", this, ActiveListingCardCache::snapshotVersion)
+            .description("Version of the active listing card snapshot, incremented by every change")
+            .register(meterRegistry);
+        Gauge.builder("petify.listings.cards.snapshot.size", this, ActiveListingCardCache::snapshotSize)
+            .description("Number of cards in the active listing card snapshot")
+            .register(meterRegistry);
+    }
+
+    /**
+     * One page of the active listing feed, newest first, starting after {@code after} (null for
+     * the first page)
+     */
+    public CursorPage<PublicListingCardView> getPage(ListingCursor after, int limit) {
+        Snapshot current = snapshot();
+        PublicListingCardView[] cards = current.cards();
+        int from = after == null ? 0 : firstAfter(cards, after);
+        // One card beyond the page tells whether there is a next page
+        if (current.complete() || from + limit < cards.length) {
+            hits.increment();
+            int to = Math.min(cards.length, from + limit + 1);
+            return CursorPage.of(Arrays.asList(cards).subList(from, to), limit, ActiveListingCardCache::cursorOf);
+        }
+
+        misses.increment();
+        Limit fetch = Limit.of(limit + 1);
+        List<PublicListingCardView> rows = after == null
+            ? publicListingRepository.findActiveListingCards(fetch)
+            : publicListingRepository.findActiveListingCardsBefore(after.createdAt(), after.listingId(), fetch);
+        return CursorPage.of(rows, limit, ActiveListingCardCache::cursorOf);
+    }
+
+    @TransactionalEventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        ListingDTO listing = event.listing();
+        PublicListingCardView card = new PublicListingCardView(
+            listing.getListingId(),
+            listing.getPrice().setScale(2, RoundingMode.HALF_UP),
+            listing.getDescription(),
+            Timestamps.roundToMicros(listing.getCreatedAt()),
+            listing.getAnimalId(),
+            listing.getOwnerId(),
+            listing.getFavoriteCount());
+        boolean active = event.type() != ListingChangedEvent.Type.DELETED && "ACTIVE".equals(listing.getStatus());
+
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                // Not loaded yet; the first read loads the current state
+                return;
+            }
+            int existing = indexOf(current.cards(), card.getListingId());
+            if (existing >= 0) {
+                // The card's count follows favorite changes, which may be newer than the event's
+                card = card.withFavoriteCount(current.cards()[existing].getFavoriteCount());
+            }
+            PublicListingCardView[] cards = remove(current.cards(), card.getListingId());
+            boolean complete = current.complete();
+            if (!active) {
+                appliedTickets.remove(card.getListingId());
+            } else {
+                int position = -Arrays.binarySearch(cards, card, FEED_ORDER) - 1;
+                // Cards older than the head are outside the snapshot unless it holds the whole feed
+                if (position < cards.length || complete) {
+                    cards = insert(cards, position, card);
+                }
+                if (cards.length > capacity) {
+                    cards = Arrays.copyOf(cards, capacity);
+                    complete = false;
+                }
+            }
+            if (!complete && cards.length < capacity / 2) {
+                // Removals have eaten into the head; reload it on the next read
+                snapshot = null;
+                return;
+            }
+            snapshot = new Snapshot(cards, complete, ++version);
+        }
+    }
+
+    /**
+     * Refresh the favorite count of a card in the snapshot. The count is read after commit rather
+     * than adjusted by one, so a listener running after a concurrent reload cannot count twice.
+     * It is read outside the lock, so loads and listing changes never wait on the query; a count
+     * read earlier than the one already applied is dropped.
+     */
+    @TransactionalEventListener
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        long ticket = favoriteTickets.incrementAndGet();
+        Snapshot current = snapshot;
+        if (current == null || indexOf(current.cards(), event.listingId()) < 0) {
+            return;
+        }
+        long count = favoriteCounter.getCount(event.listingId());
+        synchronized (writeLock) {
+            current = snapshot;
+            int index = current == null ? -1 : indexOf(current.cards(), event.listingId());
+            if (index < 0 || ticket <= loadedTicket
+                    || ticket < appliedTickets.getOrDefault(event.listingId(), 0L)) {
+                return;
+            }
+            appliedTickets.put(event.listingId(), ticket);
+            PublicListingCardView[] cards = current.cards().clone();
+            cards[index] = cards[index].withFavoriteCount(count);
+            snapshot = new Snapshot(cards, current.complete(), ++version);
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (writeLock) {
+            if (snapshot == null) {
+                // Changes committed while loading wait for the lock and are applied on top
+                loadedTicket = favoriteTickets.get();
+                appliedTickets.clear();
+                List<PublicListingCardView> cards = publicListingRepository.findActiveListingCards(Limit.of(capacity));
+                snapshot = new Snapshot(cards.toArray(new PublicListingCardView[0]), cards.size() < capacity,
+                    ++version);
+                logger.info("Loaded {} active listing cards into the feed snapshot", cards.size());
+            }
+            return snapshot;
+        }
+    }
+
+    double snapshotVersion() {
+        Snapshot current = snapshot;
+        return current == null ? Double.NaN : current.version();
+    }
+
+    double snapshotSize() {
+        Snapshot current = snapshot;
+        return current == null ? Double.NaN : current.cards().length;
+    }
+
+    // Index of the first card strictly after the cursor position in feed order
+    private static int firstAfter(PublicListingCardView[] cards, ListingCursor after) {
+        int low = 0;
+        int high = cards.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = cards[mid].getCreatedAt().compareTo(after.createdAt());
+            if (cmp > 0 || (cmp == 0 && cards[mid].getListingId() >= after.listingId())) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int indexOf(PublicListingCardView[] cards, long listingId) {
+        for (int i = 0; i < cards.length; i++) {
+            if (cards[i].getListingId() == listingId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static PublicListingCardView[] remove(PublicListingCardView[] cards, long listingId) {
+        int i = indexOf(cards, listingId);
+        if (i < 0) {
+            return cards;
+        }
+        PublicListingCardView[] result = new PublicListingCardView[cards.length - 1];
+        System.arraycopy(cards, 0, result, 0, i);
+        System.arraycopy(cards, i + 1, result, i, cards.length - i - 1);
+        return result;
+    }
+
+    private static PublicListingCardView[] insert(PublicListingCardView[] cards, int position,
+                                                  PublicListingCardView card) {
+        PublicListingCardView[] result = new PublicListingCardView[cards.length + 1];
+        System.arraycopy(cards, 0, result, 0, position);
+        result[position] = card;
+        System.arraycopy(cards, position, result, position + 1, cards.length - position);
+        return result;
+    }
+
+    private static String cursorOf(PublicListingCardView card) {
+        return new ListingCursor(card.getCreatedAt(), card.getListingId()).encode();
+    }
+
+    /**
+     * The newest active cards in feed order; {@code complete} when they are all active cards
+     */
+    private record Snapshot(PublicListingCardView[] cards, boolean complete, long version) {
+    }
+}
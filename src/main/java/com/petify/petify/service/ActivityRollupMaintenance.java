@@ -0,0 +1,97 @@
+package com.petify.petify.service;
+
+import com.petify.petify.repo.UserActivityDailyRepository;
+import com.petify.petify.repo.UserActivityTotalRepository;
+import com.petify.petify.repo.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Background jobs for the activity rollups: a one-off backfill from listings, reviews and
+ * favorite_listings when the rollup tables are empty, and a nightly prune of daily rows that
+ * have left the leaderboard window.
+ * <p>
+ * The backfill overwrites rows with a recount, so it runs during startup, once all beans exist
+ * but before the web server and the schedulers start; an increment committed meanwhile by
+ * {@link ActivityRollupService} would otherwise be lost.
+ */
+@Component
+public class ActivityRollupMaintenance implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityRollupMaintenance.class);
+
+    private final UserRepository userRepository;
+    private final UserActivityDailyRepository dailyRepository;
+    private final UserActivityTotalRepository totalRepository;
+    private final VerificationService verificationService;
+    private final int chunkSize;
+
+    public ActivityRollupMaintenance(UserRepository userRepository,
+                                     UserActivityDailyRepository dailyRepository,
+                                     UserActivityTotalRepository totalRepository,
+                                     VerificationService verificationService,
+                                     @Value("${petify.activity.backfill-chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.dailyRepository = dailyRepository;
+        this.totalRepository = totalRepository;
+        this.verificationService = verificationService;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfillIfEmpty();
+    }
+
+    public void backfillIfEmpty() {
+        if (dailyRepository.count() > 0 || totalRepository.count() > 0) {
+            return;
+        }
+        try {
+            backfill();
+            verificationService.refreshLeaderboard();
+        } catch (Exception e) {
+            logger.error("Error backfilling activity rollups: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuild the rollups chunk by chunk of user IDs; each chunk commits on its own so the
+     * source tables are never locked or read in one go
+     */
+    public void backfill() {
+        LocalDate since = ActivityRollupService.oldestKeptDate();
+        long start = System.currentTimeMillis();
+        long after = 0;
+        int users = 0;
+        List<Long> chunk;
+        while (!(chunk = userRepository.findUserIdsAfter(after, Limit.of(chunkSize))).isEmpty()) {
+            Long from = chunk.get(0);
+            Long to = chunk.get(chunk.size() - 1);
+            dailyRepository.backfill(from, to, since);
+            totalRepository.backfill(from, to);
+            users += chunk.size();
+            after = to;
+            logger.debug("Backfilled activity rollups for users {}..{}", from, to);
+        }
+        logger.info("Backfilled activity rollups for {} users in {} ms", users, System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(cron = "${petify.activity.prune-cron:0 30 3 * * *}")
+    public void pruneDailyRows() {
+        try {
+            int deleted = dailyRepository.deleteOlderThan(ActivityRollupService.oldestKeptDate());
+            logger.info("Pruned {} daily activity rows", deleted);
+        } catch (Exception e) {
+            logger.error("Error pruning daily activity rows: {}", e.getMessage(), e);
+        }
+    }
+}
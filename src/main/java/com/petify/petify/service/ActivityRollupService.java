@@ -0,0 +1,79 @@
+package com.petify.petify.service;
+
+import com.petify.petify.repo.UserActivityDailyRepository;
+import com.petify.petify.repo.UserActivityTotalRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the activity rollups (user_activity_daily, user_activity_totals) in step with the
+ * write paths that feed the verification leaderboard. Called inside the caller's transaction
+ * so a rollup never counts a change that was rolled back.
+ */
+@Service
+public class ActivityRollupService {
+
+    // Daily rows are kept a little longer than the 30-day window they feed
+    static final int RETENTION_DAYS = 35;
+
+    private final UserActivityDailyRepository dailyRepository;
+    private final UserActivityTotalRepository totalRepository;
+
+    public ActivityRollupService(UserActivityDailyRepository dailyRepository,
+                                 UserActivityTotalRepository totalRepository) {
+        this.dailyRepository = dailyRepository;
+        this.totalRepository = totalRepository;
+    }
+
+    @Transactional
+    public void recordListingCreated(Long ownerId, LocalDateTime createdAt) {
+        dailyRepository.addActivity(ownerId, createdAt.toLocalDate(), 1, 0);
+    }
+
+    /**
+     * Must be called before the listing is deleted, while its favorites still exist. A listing
+     * created before the kept days has no daily row left to take back from.
+     */
+    @Transactional
+    public void recordListingDeleted(Long listingId, Long ownerId, LocalDateTime createdAt) {
+        LocalDate createdOn = createdAt.toLocalDate();
+        if (!createdOn.isBefore(oldestKeptDate())) {
+            dailyRepository.addActivity(ownerId, createdOn, -1, 0);
+        }
+        totalRepository.removeFavoritesOfListing(listingId);
+    }
+
+    @Transactional
+    public void recordReviewCreated(Long reviewerId, LocalDateTime createdAt) {
+        dailyRepository.addActivity(reviewerId, createdAt.toLocalDate(), 0, 1);
+    }
+
+    @Transactional
+    public void recordFavoriteAdded(Long clientId) {
+        totalRepository.addFavorites(clientId, 1);
+    }
+
+    @Transactional
+    public void recordFavoriteRemoved(Long clientId) {
+        totalRepository.addFavorites(clientId, -1);
+    }
+
+    /**
+     * Oldest day whose daily rows are kept; older ones are pruned and never backfilled
+     */
+    static LocalDate oldestKeptDate() {
+        return LocalDate.now().minusDays(RETENTION_DAYS);
+    }
+
+    /**
+     * The {@code limit} most active users, best first
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findTopActiveUserIds(int limit) {
+        return dailyRepository.findTopActiveUserIds(limit);
+    }
+}
@@ -1,27 +1,30 @@
 package com.petify.petify.service;
 
 import com.petify.petify.domain.Client;
-import com.petify.petify.domain.Owner;
 import com.petify.petify.domain.User;
 import com.petify.petify.domain.UserType;
 import com.petify.petify.dto.AuthResponse;
+import com.petify.petify.dto.BatchResult;
+import com.petify.petify.dto.CursorPage;
 import com.petify.petify.dto.LoginRequest;
+import com.petify.petify.dto.RatingSummaryDTO;
 import com.petify.petify.dto.SignUpRequest;
 import com.petify.petify.dto.UserDTO;
-import com.petify.petify.repo.AdminRepository;
+import com.petify.petify.dto.UserRole;
 import com.petify.petify.repo.ClientRepository;
-import com.petify.petify.repo.OwnerRepository;
+import com.petify.petify.repo.UserRatingSummaryRepository;
 import com.petify.petify.repo.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class AuthService {
@@ -30,26 +33,32 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final ClientRepository clientRepository;
-    private final OwnerRepository ownerRepository;
-    private final AdminRepository adminRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRoleCache userRoleCache;
+    private final TokenService tokenService;
+    private final UserRatingSummaryRepository ratingSummaryRepository;
 
     public AuthService(UserRepository userRepository, ClientRepository clientRepository,
-                      OwnerRepository ownerRepository, AdminRepository adminRepository,
-                      PasswordEncoder passwordEncoder) {
+                      PasswordHashingService passwordHashingService, TransactionTemplate transactionTemplate,
+                      UserRoleCache userRoleCache, TokenService tokenService,
+                      UserRatingSummaryRepository ratingSummaryRepository) {
         this.userRepository = userRepository;
         this.clientRepository = clientRepository;
-        this.ownerRepository = ownerRepository;
-        this.adminRepository = adminRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.transactionTemplate = transactionTemplate;
+        this.userRoleCache = userRoleCache;
+        this.tokenService = tokenService;
+        this.ratingSummaryRepository = ratingSummaryRepository;
     }
 
     /**
      * Register a new user as CLIENT
      * All new users are registered as CLIENT by default
      * Creates both a User and a Client row in the database
+     * The password is hashed before the transaction starts, so no connection is held while it waits
+     * for the hashing pool
      */
-    @Transactional
     public AuthResponse signUp(SignUpRequest request) {
         // Check if username or email already exists
         if (userRepository.findByUsername(request.getUsername()).isPresent()) {
@@ -60,11 +69,16 @@ public class AuthService {
         }
         logger.error(">>> SIGNUP METHOD HIT <<<");
 
+        String passwordHash = passwordHashingService.encode(request.getPassword());
+        return transactionTemplate.execute(status -> createClient(request, passwordHash));
+    }
+
+    private AuthResponse createClient(SignUpRequest request, String passwordHash) {
         // Create new user as CLIENT
         User user = new User(
             request.getUsername(),
             request.getEmail(),
-            passwordEncoder.encode(request.getPassword()),
+            passwordHash,
             request.getFirstName(),
             request.getLastName()
         );
@@ -82,20 +96,21 @@ public class AuthService {
             throw new RuntimeException("Failed to create client profile: " + e.getMessage(), e);
         }
 
-        return new AuthResponse(
+        return withToken(new AuthResponse(
             savedUser.getUserId(),
             savedUser.getUsername(),
             savedUser.getEmail(),
             savedUser.getFirstName(),
             savedUser.getLastName(),
             UserType.CLIENT
-        );
+        ));
     }
 
     /**
      * Login user with username and password
+     * Not transactional: each lookup takes its own short transaction and no connection is held
+     * while the password is verified on the hashing pool
      */
-    @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
         Optional<User> user = userRepository.findByUsername(request.getUsername());
 
@@ -114,42 +129,75 @@ public class AuthService {
             foundUser.getLastName());
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), foundUser.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), foundUser.getPassword())) {
             throw new RuntimeException("Invalid username or password");
         }
 
         logger.info("Password verified successfully for user: {}", foundUser.getUsername());
+        rehashIfNeeded(foundUser, request.getPassword());
 
         // Check if user is blocked (both clients and owners can be blocked)
-        if (clientRepository.existsById(foundUser.getUserId())) {
-            Client client = clientRepository.findById(foundUser.getUserId()).orElse(null);
-            if (client != null && client.isBlocked()) {
-                logger.warn("❌ Login attempt by blocked user: {}", foundUser.getUsername());
-                throw new RuntimeException("Your account has been blocked. Reason: " + (client.getBlockedReason() != null ? client.getBlockedReason() : "No reason provided"));
-            }
-        }
-
-        // Determine user type by checking tables in order: ADMIN -> OWNER -> CLIENT
-        UserType userType = UserType.CLIENT;
-
-        if (adminRepository.existsById(foundUser.getUserId())) {
-            userType = UserType.ADMIN;
-            logger.info(" User is ADMIN");
-        } else if (ownerRepository.existsById(foundUser.getUserId())) {
-            userType = UserType.OWNER;
-            logger.info(" User is OWNER");
-        } else {
-            logger.info(" User is CLIENT");
+        UserRole role = userRoleCache.get(foundUser.getUserId())
+            .orElseThrow(() -> new RuntimeException("Invalid username or password"));
+        if (role.blocked()) {
+            logger.warn("❌ Login attempt by blocked user: {}", foundUser.getUsername());
+            throw new RuntimeException("Your account has been blocked. Reason: " + (role.blockedReason() != null ? role.blockedReason() : "No reason provided"));
         }
+        logger.info(" User is {}", role.userType());
 
-        return new AuthResponse(
+        return withToken(new AuthResponse(
             foundUser.getUserId(),
             foundUser.getUsername(),
             foundUser.getEmail(),
             foundUser.getFirstName(),
             foundUser.getLastName(),
-            userType
-        );
+            role.userType()
+        ));
+    }
+
+    /**
+     * A fresh token for a signed-in user, carrying their current type; a client who became an
+     * owner by adding a pet needs one before creating listings
+     */
+    public AuthResponse refresh(Long userId) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        UserRole role = userRoleCache.get(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        if (role.blocked()) {
+            throw new RuntimeException("Your account has been blocked. Reason: " + (role.blockedReason() != null ? role.blockedReason() : "No reason provided"));
+        }
+
+        return withToken(new AuthResponse(
+            user.getUserId(),
+            user.getUsername(),
+            user.getEmail(),
+            user.getFirstName(),
+            user.getLastName(),
+            role.userType()
+        ));
+    }
+
+    // Upgrade legacy plaintext and hashes of an older cost while the raw password is at hand
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            userRepository.updatePassword(user.getUserId(), passwordHashingService.encode(rawPassword));
+            logger.info("Password hash upgraded for user: {}", user.getUsername());
+        } catch (RejectedExecutionException e) {
+            // The pool is busy; the next login will try again
+            logger.debug("Skipped password rehash for user {}: hashing queue full", user.getUserId());
+        }
+    }
+
+    // Access token for the authenticated user; sent back as "Authorization: Bearer <token>"
+    private AuthResponse withToken(AuthResponse response) {
+        TokenService.IssuedToken token = tokenService.issue(response.getUserId(), response.getUserType());
+        response.setToken(token.token());
+        response.setExpiresAt(token.expiresAt());
+        return response;
     }
 
 
@@ -163,6 +211,14 @@ public class AuthService {
         return mapToDTO(user);
     }
 
+    /**
+     * Get several users in one query, in the order of {@code userIds}
+     */
+    @Transactional(readOnly = true)
+    public BatchResult<UserDTO> getUsersByIds(Collection<Long> userIds) {
+        return BatchResult.of(userIds, userRepository.findUserDTOsByIds(userIds), UserDTO::getUserId);
+    }
+
     /**
      * Get user by username
      */
@@ -174,67 +230,34 @@ public class AuthService {
     }
 
     /**
-     * Get all users
+     * Get one page of users in ID order, starting after the given user ID (keyset pagination).
+     * Types and block status are resolved in the same query, so a page is a single statement.
+     * The next cursor is the last user ID of the page, null on the last page.
+     * @param after last user ID of the previous page, or null for the first page
      */
     @Transactional(readOnly = true)
-    public List<UserDTO> getAllUsers() {
-        logger.info("===== GET ALL USERS SERVICE =====");
-        List<UserDTO> users = userRepository.findAll()
-            .stream()
-            .map(user -> {
-                UserDTO dto = this.mapToDTO(user);
-                logger.debug("✓ Mapped user {} with type: {}", user.getUserId(), dto.getUserType());
-                return dto;
-            })
-            .collect(Collectors.toList());
-        logger.info("✓ Successfully mapped {} users", users.size());
-        return users;
+    public CursorPage<UserDTO> getUsers(Long after, int limit) {
+        logger.info("===== GET USERS SERVICE (after={}, limit={}) =====", after, limit);
+        // One extra row tells whether another page follows
+        List<UserDTO> rows = userRepository.findUserDTOsAfter(after != null ? after : 0L, Limit.of(limit + 1));
+        CursorPage<UserDTO> page = CursorPage.of(rows, limit, user -> String.valueOf(user.getUserId()));
+        logger.info("✓ Successfully mapped {} users", page.items().size());
+        return page;
     }
 
-
-
-
     /**
      * Map User entity to UserDTO
      */
     private UserDTO mapToDTO(User user) {
-        // Determine user type by checking tables in order: ADMIN -> OWNER -> CLIENT
-        String userType = "CLIENT";
-        boolean isBlocked = false;
-        String blockedReason = "";
-
-        if (adminRepository.existsById(user.getUserId())) {
-            userType = "ADMIN";
-            logger.debug("✓ User {} is ADMIN", user.getUserId());
-        } else if (ownerRepository.existsById(user.getUserId())) {
-            userType = "OWNER";
-            logger.debug("✓ User {} is OWNER", user.getUserId());
-
-            // Check if owner is blocked (via their client record)
-            if (clientRepository.existsById(user.getUserId())) {
-                Client client = clientRepository.findById(user.getUserId()).orElse(null);
-                if (client != null) {
-                    isBlocked = client.isBlocked();
-                    blockedReason = client.getBlockedReason() != null ? client.getBlockedReason() : "";
-                    if (isBlocked) {
-                        logger.debug("⚠ Owner {} is BLOCKED. Reason: {}", user.getUserId(), blockedReason);
-                    }
-                }
-            }
-        } else {
-            logger.debug("✓ User {} is CLIENT", user.getUserId());
-
-            // Check if client is blocked
-            if (clientRepository.existsById(user.getUserId())) {
-                Client client = clientRepository.findById(user.getUserId()).orElse(null);
-                if (client != null) {
-                    isBlocked = client.isBlocked();
-                    blockedReason = client.getBlockedReason() != null ? client.getBlockedReason() : "";
-                    if (isBlocked) {
-                        logger.debug("⚠ User {} is BLOCKED. Reason: {}", user.getUserId(), blockedReason);
-                    }
-                }
-            }
+        UserRole role = userRoleCache.get(user.getUserId())
+            .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Admins are never reported as blocked
+        String userType = role.userType().name();
+        boolean isBlocked = role.userType() != UserType.ADMIN && role.blocked();
+        String blockedReason = role.userType() != UserType.ADMIN && role.blockedReason() != null ? role.blockedReason() : "";
+        if (isBlocked) {
+            logger.debug("⚠ User {} is BLOCKED. Reason: {}", user.getUserId(), blockedReason);
         }
 
         UserDTO dto = new UserDTO(
@@ -248,6 +271,10 @@ public class AuthService {
             isBlocked,
             blockedReason
         );
+        // One primary-key read; profiles show ratings without reading reviews
+        dto.setRatingSummary(ratingSummaryRepository.findById(user.getUserId())
+            .map(RatingSummaryDTO::of)
+            .orElseGet(() -> RatingSummaryDTO.empty(user.getUserId())));
 
         logger.debug("✓ Created UserDTO for {} with type: {}, blocked: {}", user.getUsername(), userType, isBlocked);
         return dto;
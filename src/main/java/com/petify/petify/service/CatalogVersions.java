@@ -0,0 +1,65 @@
+package com.petify.petify.service;
+
+import com.petify.petify.event.FavoriteChangedEvent;
+import com.petify.petify.event.ListingChangedEvent;
+import com.petify.petify.event.PetAddedEvent;
+import com.petify.petify.event.ReviewChangedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide change counters used as strong ETags. A counter is bumped after every committed
+ * change of its catalog, so a response tagged with the counter read before loading it can only
+ * be older than its tag, never newer. Counters live in memory and start over on restart;
+ * the startup time in the tag keeps tags of different runs apart.
+ */
+@Service
+public class CatalogVersions {
+
+    public enum Catalog {
+        LISTINGS,
+        PETS,
+        REVIEWS
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Catalog, AtomicLong> versions = new EnumMap<>(Catalog.class);
+
+    public CatalogVersions() {
+        for (Catalog catalog : Catalog.values()) {
+            versions.put(catalog, new AtomicLong());
+        }
+    }
+
+    /**
+     * Quoted strong ETag of the current state of a catalog
+     */
+    public String etag(Catalog catalog) {
+        return "\"" + catalog.name().toLowerCase() + "-" + epoch + "-" + versions.get(catalog).get() + "\"";
+    }
+
+    @TransactionalEventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        versions.get(Catalog.LISTINGS).incrementAndGet();
+    }
+
+    // Listing bodies carry the favorite count
+    @TransactionalEventListener
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        versions.get(Catalog.LISTINGS).incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onPetAdded(PetAddedEvent event) {
+        versions.get(Catalog.PETS).incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onReviewChanged(ReviewChangedEvent event) {
+        versions.get(Catalog.REVIEWS).incrementAndGet();
+    }
+}
@@ -0,0 +1,240 @@
+package com.petify.petify.service;
+
+import com.petify.petify.event.FavoriteChangedEvent;
+import com.petify.petify.event.ListingChangedEvent;
+import com.petify.petify.repo.FavoriteListingRepository;
+import com.petify.petify.util.LongLongHashMap;
+import com.petify.petify.util.LongObjectHashMap;
+import com.petify.petify.util.SortedLongArrays;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory item-to-item co-occurrence index over favorite_listings.
+ * Keeps client -> liked listings and listing -> clients as sorted primitive arrays, loaded at
+ * startup and updated after every committed favorite change, so collaborative-filtering
+ * candidates are scored without a database round trip. Scores are identical to the
+ * cf_candidates CTE of ListingRepository.findRecommendedListings.
+ */
+@Service
+public class CollaborativeFilteringEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollaborativeFilteringEngine.class);
+
+    private static final long[] NONE = new long[0];
+
+    private final FavoriteListingRepository favoriteRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Arrays are never mutated once published; writers swap in a new copy
+    private LongObjectHashMap<long[]> listingsByClient = new LongObjectHashMap<>();
+    private LongObjectHashMap<long[]> clientsByListing = new LongObjectHashMap<>();
+
+    // Non-null while a reload is reading the table; changes committed meanwhile are replayed on top
+    private List<Runnable> changesDuringReload;
+
+    public CollaborativeFilteringEngine(FavoriteListingRepository favoriteRepository,
+                                        @Value("${petify.recommendations.engine:memory}") RecommendationService.Engine engine) {
+        this.favoriteRepository = favoriteRepository;
+        this.enabled = engine == RecommendationService.Engine.MEMORY;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuild the index from favorite_listings
+     */
+    @Transactional(readOnly = true)
+    public void reload() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long[] clients = new long[1024];
+        long[] listings = new long[1024];
+        int count = 0;
+        try (Stream<Object[]> pairs = favoriteRepository.streamClientListingPairs()) {
+            Iterator<Object[]> iterator = pairs.iterator();
+            while (iterator.hasNext()) {
+                Object[] pair = iterator.next();
+                if (count == clients.length) {
+                    clients = Arrays.copyOf(clients, count * 2);
+                    listings = Arrays.copyOf(listings, count * 2);
+                }
+                clients[count] = ((Number) pair[0]).longValue();
+                listings[count] = ((Number) pair[1]).longValue();
+                count++;
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        LongObjectHashMap<long[]> byClient = index(clients, listings, count);
+        LongObjectHashMap<long[]> byListing = index(listings, clients, count);
+
+        lock.writeLock().lock();
+        try {
+            listingsByClient = byClient;
+            clientsByListing = byListing;
+            changesDuringReload.forEach(Runnable::run);
+            changesDuringReload = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Loaded {} favorites for {} clients into the co-occurrence index in {} ms",
+            count, byClient.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Score every listing liked by a user who shares at least one like with {@code clientId}:
+     * cfScore sums the overlap of those users, likedBySimilarUsers counts them. Listings the
+     * client already likes are excluded; status and ownership are left to the caller.
+     */
+    public Candidates candidates(long clientId) {
+        lock.readLock().lock();
+        try {
+            long[] myLikes = listingsByClient.get(clientId);
+            if (myLikes == null) {
+                return new Candidates(NONE, new LongLongHashMap(), new LongLongHashMap());
+            }
+
+            LongLongHashMap overlap = new LongLongHashMap();
+            for (long listingId : myLikes) {
+                for (long otherClient : clientsByListing.get(listingId)) {
+                    if (otherClient != clientId) {
+                        overlap.addTo(otherClient, 1);
+                    }
+                }
+            }
+
+            LongLongHashMap cfScores = new LongLongHashMap();
+            LongLongHashMap likedBy = new LongLongHashMap();
+            overlap.forEach((otherClient, overlapLikes) -> {
+                for (long listingId : listingsByClient.get(otherClient)) {
+                    if (!SortedLongArrays.contains(myLikes, listingId)) {
+                        cfScores.addTo(listingId, overlapLikes);
+                        likedBy.addTo(listingId, 1);
+                    }
+                }
+            });
+            return new Candidates(myLikes, cfScores, likedBy);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @TransactionalEventListener
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        if (enabled) {
+            write(() -> applyFavorite(event.userId(), event.listingId(), event.favorited()));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        // Favorites of a deleted listing go with it (ON DELETE CASCADE)
+        if (enabled && event.type() == ListingChangedEvent.Type.DELETED) {
+            write(() -> applyListingDeleted(event.listing().getListingId()));
+        }
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyFavorite(long clientId, long listingId, boolean favorited) {
+        if (favorited) {
+            listingsByClient.put(clientId, SortedLongArrays.insert(listingsByClient.get(clientId), listingId));
+            clientsByListing.put(listingId, SortedLongArrays.insert(clientsByListing.get(listingId), clientId));
+        } else {
+            replace(listingsByClient, clientId, SortedLongArrays.remove(listingsByClient.get(clientId), listingId));
+            replace(clientsByListing, listingId, SortedLongArrays.remove(clientsByListing.get(listingId), clientId));
+        }
+    }
+
+    private void applyListingDeleted(long listingId) {
+        long[] clients = clientsByListing.remove(listingId);
+        if (clients != null) {
+            for (long clientId : clients) {
+                replace(listingsByClient, clientId, SortedLongArrays.remove(listingsByClient.get(clientId), listingId));
+            }
+        }
+    }
+
+    private static void replace(LongObjectHashMap<long[]> index, long key, long[] values) {
+        if (values == null || values.length == 0) {
+            index.remove(key);
+        } else {
+            index.put(key, values);
+        }
+    }
+
+    /**
+     * Group pairs by key into sorted arrays: count degrees first so each array is allocated once
+     */
+    private static LongObjectHashMap<long[]> index(long[] keys, long[] values, int count) {
+        LongLongHashMap degrees = new LongLongHashMap();
+        for (int i = 0; i < count; i++) {
+            degrees.addTo(keys[i], 1);
+        }
+        LongObjectHashMap<long[]> index = new LongObjectHashMap<>(degrees.size());
+        degrees.forEach((key, degree) -> index.put(key, new long[(int) degree]));
+
+        LongLongHashMap filled = new LongLongHashMap(degrees.size());
+        for (int i = 0; i < count; i++) {
+            index.get(keys[i])[(int) filled.addTo(keys[i], 1) - 1] = values[i];
+        }
+        index.forEach((key, array) -> Arrays.sort(array));
+        return index;
+    }
+
+    /**
+     * Collaborative-filtering candidates of one client; {@code likedListings} is sorted
+     */
+    public record Candidates(long[] likedListings, LongLongHashMap cfScores, LongLongHashMap likedBySimilarUsers) {
+    }
+}
@@ -0,0 +1,359 @@
+package com.petify.petify.service;
+
+import com.petify.petify.dto.AnimalResponseDTO;
+import com.petify.petify.dto.ListingDTO;
+import com.petify.petify.event.ListingChangedEvent;
+import com.petify.petify.event.PetAddedEvent;
+import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.repo.PetRepository;
+import com.petify.petify.util.LongLongHashMap;
+import com.petify.petify.util.LongObjectHashMap;
+import com.petify.petify.util.SortedLongArrays;
+import com.petify.petify.util.Timestamps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index from pet attributes (species, breed, located_name) to listings,
+ * plus the listing metadata needed to rank recommendations. Replaces the content_candidates
+ * CTE of ListingRepository.findRecommendedListings: a candidate scores one point per recent
+ * like it shares at least one attribute with, exactly as the OR-join counts it. Pet type is
+ * not part of that score and is therefore not indexed.
+ */
+@Service
+public class ContentSimilarityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentSimilarityIndex.class);
+
+    // Matches LIMIT 10 of my_recent_likes
+    static final int RECENT_LIKES = 10;
+
+    // ORDER BY final_score DESC, created_at DESC, listing_id DESC
+    private static final Comparator<Ranked> RANKING = Comparator.comparingLong(Ranked::score).reversed()
+        .thenComparing(Ranked::createdAt, Comparator.reverseOrder())
+        .thenComparing(Comparator.comparingLong(Ranked::listingId).reversed());
+
+    private static final Comparator<IndexedListing> MOST_RECENT_FIRST =
+        Comparator.comparing(IndexedListing::createdAt, Comparator.reverseOrder())
+            .thenComparing(Comparator.comparingLong(IndexedListing::listingId).reversed());
+
+    private final PetRepository petRepository;
+    private final ListingRepository listingRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LongObjectHashMap<Animal> animals = new LongObjectHashMap<>();
+    private LongObjectHashMap<IndexedListing> listings = new LongObjectHashMap<>();
+
+    // Attribute value -> sorted listing IDs; arrays are replaced, never mutated
+    private Map<String, long[]> bySpecies = new HashMap<>();
+    private Map<String, long[]> byBreed = new HashMap<>();
+    private Map<String, long[]> byLocation = new HashMap<>();
+
+    // Non-null while a reload is reading the tables; changes committed meanwhile are replayed on top
+    private List<Runnable> changesDuringReload;
+
+    public ContentSimilarityIndex(PetRepository petRepository,
+                                  ListingRepository listingRepository,
+                                  @Value("${petify.recommendations.engine:memory}") RecommendationService.Engine engine) {
+        this.petRepository = petRepository;
+        this.listingRepository = listingRepository;
+        this.enabled = engine == RecommendationService.Engine.MEMORY;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuild the index from animals and listings
+     */
+    @Transactional(readOnly = true)
+    public void reload() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LongObjectHashMap<Animal> loadedAnimals = new LongObjectHashMap<>();
+        List<IndexedListing> loadedListings = new ArrayList<>();
+        try (Stream<Object[]> rows = petRepository.streamContentAttributes()) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                loadedAnimals.put(((Number) row[0]).longValue(),
+                    new Animal((String) row[1], (String) row[2], (String) row[3]));
+            }
+            try (Stream<Object[]> listingRows = listingRepository.streamIndexEntries()) {
+                Iterator<Object[]> listingIterator = listingRows.iterator();
+                while (listingIterator.hasNext()) {
+                    Object[] row = listingIterator.next();
+                    loadedListings.add(new IndexedListing(((Number) row[0]).longValue(),
+                        ((Number) row[1]).longValue(), ((Number) row[2]).longValue(),
+                        "ACTIVE".equals(row[3]), Timestamps.toLocalDateTime(row[4])));
+                }
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        LongObjectHashMap<IndexedListing> listingsById = new LongObjectHashMap<>(loadedListings.size());
+        for (IndexedListing listing : loadedListings) {
+            listingsById.put(listing.listingId(), listing);
+        }
+        Map<String, long[]> species = postings(loadedListings, loadedAnimals, Animal::species);
+        Map<String, long[]> breeds = postings(loadedListings, loadedAnimals, Animal::breed);
+        Map<String, long[]> locations = postings(loadedListings, loadedAnimals, Animal::locatedName);
+
+        lock.writeLock().lock();
+        try {
+            animals = loadedAnimals;
+            listings = listingsById;
+            bySpecies = species;
+            byBreed = breeds;
+            byLocation = locations;
+            changesDuringReload.forEach(Runnable::run);
+            changesDuringReload = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} listings over {} animals for content similarity in {} ms",
+            loadedListings.size(), loadedAnimals.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Content scores for a user with the given liked listings (sorted): every listing that is
+     * not liked itself scores one point per recent like sharing species, breed or location with it
+     */
+    public LongLongHashMap contentScores(long[] likedListings) {
+        LongLongHashMap scores = new LongLongHashMap();
+        if (likedListings.length == 0) {
+            return scores;
+        }
+        lock.readLock().lock();
+        try {
+            List<IndexedListing> recent = new ArrayList<>(likedListings.length);
+            for (long listingId : likedListings) {
+                IndexedListing listing = listings.get(listingId);
+                if (listing != null) {
+                    recent.add(listing);
+                }
+            }
+            recent.sort(MOST_RECENT_FIRST);
+
+            // Marks the recent like that last counted a listing, so a listing matching on
+            // several attributes still scores once per like
+            LongLongHashMap countedFor = new LongLongHashMap();
+            for (int i = 0; i < Math.min(RECENT_LIKES, recent.size()); i++) {
+                IndexedListing like = recent.get(i);
+                Animal animal = animals.get(like.animalId());
+                if (animal == null) {
+                    continue;
+                }
+                long marker = i + 1;
+                for (long[] posting : new long[][] {
+                        posting(bySpecies, animal.species()),
+                        posting(byBreed, animal.breed()),
+                        posting(byLocation, animal.locatedName())}) {
+                    for (long candidate : posting) {
+                        if (candidate != like.listingId()
+                                && countedFor.get(candidate) != marker
+                                && !SortedLongArrays.contains(likedListings, candidate)) {
+                            countedFor.put(candidate, marker);
+                            scores.addTo(candidate, 1);
+                        }
+                    }
+                }
+            }
+            return scores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best {@code limit} ACTIVE listings not owned by {@code userId}, ordered like the
+     * recommendation query: score, then newest, then highest ID
+     */
+    public long[] rankActive(LongLongHashMap scores, long userId, int limit) {
+        PriorityQueue<Ranked> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        lock.readLock().lock();
+        try {
+            scores.forEach((listingId, score) -> {
+                IndexedListing listing = listings.get(listingId);
+                if (listing == null || !listing.active() || listing.ownerId() == userId) {
+                    return;
+                }
+                best.add(new Ranked(listingId, score, listing.createdAt()));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long[] ranked = new long[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll().listingId();
+        }
+        return ranked;
+    }
+
+    @TransactionalEventListener
+    public void onPetAdded(PetAddedEvent event) {
+        if (enabled) {
+            AnimalResponseDTO pet = event.pet();
+            Animal animal = new Animal(pet.getSpecies(), pet.getBreed(), pet.getLocatedName());
+            write(() -> animals.put(pet.getAnimalId(), animal));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ListingDTO dto = event.listing();
+        IndexedListing listing = new IndexedListing(dto.getListingId(), dto.getAnimalId(), dto.getOwnerId(),
+            "ACTIVE".equals(dto.getStatus()), Timestamps.roundToMicros(dto.getCreatedAt()));
+        switch (event.type()) {
+            case CREATED -> write(() -> addListing(listing));
+            case STATUS_CHANGED -> write(() -> listings.put(listing.listingId(), listing));
+            case DELETED -> write(() -> removeListing(listing));
+        }
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addListing(IndexedListing listing) {
+        listings.put(listing.listingId(), listing);
+        Animal animal = animals.get(listing.animalId());
+        if (animal == null) {
+            logger.warn("Listing {} refers to unknown animal {}, not indexed for content similarity",
+                listing.listingId(), listing.animalId());
+            return;
+        }
+        addPosting(bySpecies, animal.species(), listing.listingId());
+        addPosting(byBreed, animal.breed(), listing.listingId());
+        addPosting(byLocation, animal.locatedName(), listing.listingId());
+    }
+
+    private void removeListing(IndexedListing listing) {
+        listings.remove(listing.listingId());
+        Animal animal = animals.get(listing.animalId());
+        if (animal != null) {
+            removePosting(bySpecies, animal.species(), listing.listingId());
+            removePosting(byBreed, animal.breed(), listing.listingId());
+            removePosting(byLocation, animal.locatedName(), listing.listingId());
+        }
+    }
+
+    private static void addPosting(Map<String, long[]> index, String value, long listingId) {
+        if (value != null) {
+            index.put(value, SortedLongArrays.insert(index.get(value), listingId));
+        }
+    }
+
+    private static void removePosting(Map<String, long[]> index, String value, long listingId) {
+        if (value == null) {
+            return;
+        }
+        long[] remaining = SortedLongArrays.remove(index.get(value), listingId);
+        if (remaining == null || remaining.length == 0) {
+            index.remove(value);
+        } else {
+            index.put(value, remaining);
+        }
+    }
+
+    // NULL never equals anything in SQL, so NULL attributes have no posting list
+    private static long[] posting(Map<String, long[]> index, String value) {
+        long[] listingIds = value == null ? null : index.get(value);
+        return listingIds == null ? new long[0] : listingIds;
+    }
+
+    /**
+     * Group listing IDs by one animal attribute: count first so each array is allocated once
+     */
+    private static Map<String, long[]> postings(List<IndexedListing> listings, LongObjectHashMap<Animal> animals,
+                                                Function<Animal, String> attribute) {
+        Map<String, int[]> sizes = new HashMap<>();
+        for (IndexedListing listing : listings) {
+            String value = valueOf(animals, listing, attribute);
+            if (value != null) {
+                sizes.computeIfAbsent(value, v -> new int[1])[0]++;
+            }
+        }
+        Map<String, long[]> postings = new HashMap<>(sizes.size() * 2);
+        sizes.forEach((value, size) -> postings.put(value, new long[size[0]]));
+        for (IndexedListing listing : listings) {
+            String value = valueOf(animals, listing, attribute);
+            if (value != null) {
+                postings.get(value)[--sizes.get(value)[0]] = listing.listingId();
+            }
+        }
+        postings.values().forEach(Arrays::sort);
+        return postings;
+    }
+
+    private static String valueOf(LongObjectHashMap<Animal> animals, IndexedListing listing,
+                                  Function<Animal, String> attribute) {
+        Animal animal = animals.get(listing.animalId());
+        return animal == null ? null : attribute.apply(animal);
+    }
+
+    private record Animal(String species, String breed, String locatedName) {
+    }
+
+    private record IndexedListing(long listingId, long animalId, long ownerId, boolean active,
+                                  LocalDateTime createdAt) {
+    }
+
+    private record Ranked(long listingId, long score, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.petify.petify.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petify.petify.repo.FavoriteListingRepository;
+import com.petify.petify.util.SortedLongArrays;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Favorited listing IDs per client, kept as a sorted {@code long[]} so a grid of cards is answered
+ * with binary searches. A miss costs one index-only scan of the favorite_listings primary key.
+ * The cache is bounded by the total number of IDs held, not by the number of clients.
+ * <p>
+ * FavoritesService invalidates a client's entry when a favorite is added or removed. Favorites
+ * dropped by cascade when a listing is deleted linger until expiry, which is harmless since
+ * listing IDs are never reused.
+ */
+@Service
+public class FavoriteSetCache {
+
+    private final FavoriteListingRepository favoriteRepository;
+    private final Cache<Long, long[]> cache;
+
+    public FavoriteSetCache(FavoriteListingRepository favoriteRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${petify.favorites.cache.max-ids:1000000}") long maxIds,
+                            @Value("${petify.favorites.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.favoriteRepository = favoriteRepository;
+        this.cache = Caffeine.newBuilder()
+            // Empty sets still take an entry
+            .<Long, long[]>weigher((clientId, listingIds) -> Math.max(1, listingIds.length))
+            .maximumWeight(maxIds)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "favoriteSets");
+    }
+
+    /**
+     * Whether the client has favorited the listing
+     */
+    public boolean contains(Long clientId, long listingId) {
+        return SortedLongArrays.contains(get(clientId), listingId);
+    }
+
+    /**
+     * All listing IDs the client has favorited, sorted ascending. Must not be modified.
+     */
+    public long[] get(Long clientId) {
+        return cache.get(clientId, id -> favoriteRepository.findListingIdsByClientId(id).stream()
+            .mapToLong(Long::longValue)
+            .toArray());
+    }
+
+    /**
+     * Drop the cached favorites of a client. Inside a transaction this happens after commit, so a
+     * concurrent reader cannot cache the old set again before the change is visible.
+     */
+    public void invalidate(Long clientId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(clientId);
+                }
+            });
+        } else {
+            cache.invalidate(clientId);
+        }
+    }
+}
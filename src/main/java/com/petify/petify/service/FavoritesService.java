@@ -1,18 +1,20 @@
 package com.petify.petify.service;
 
-import com.petify.petify.domain.Client;
-import com.petify.petify.domain.FavoriteListing;
-import com.petify.petify.domain.Listing;
 import com.petify.petify.dto.ListingDTO;
-import com.petify.petify.repo.ClientRepository;
+import com.petify.petify.event.FavoriteChangedEvent;
 import com.petify.petify.repo.FavoriteListingRepository;
-import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.util.SortedLongArrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,46 +23,72 @@ public class FavoritesService {
     private static final Logger logger = LoggerFactory.getLogger(FavoritesService.class);
 
     private final FavoriteListingRepository favoriteRepository;
-    private final ClientRepository clientRepository;
-    private final ListingRepository listingRepository;
     private final ListingService listingService;
+    private final ActivityRollupService activityRollupService;
+    private final FavoriteSetCache favoriteSetCache;
+    private final ListingFavoriteCounter favoriteCounter;
+    private final ApplicationEventPublisher eventPublisher;
 
     public FavoritesService(FavoriteListingRepository favoriteRepository,
-                           ClientRepository clientRepository,
-                           ListingRepository listingRepository,
-                           ListingService listingService) {
+                           ListingService listingService,
+                           ActivityRollupService activityRollupService,
+                           FavoriteSetCache favoriteSetCache,
+                           ListingFavoriteCounter favoriteCounter,
+                           ApplicationEventPublisher eventPublisher) {
         this.favoriteRepository = favoriteRepository;
-        this.clientRepository = clientRepository;
-        this.listingRepository = listingRepository;
         this.listingService = listingService;
+        this.activityRollupService = activityRollupService;
+        this.favoriteSetCache = favoriteSetCache;
+        this.favoriteCounter = favoriteCounter;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Favorite a listing; repeating it is harmless
+     * @return true if the listing was newly favorited, false if it already was
+     */
     @Transactional
-    public void addFavorite(Long userId, Long listingId) {
-        Client client = clientRepository.findByUserId(userId)
-            .orElseThrow(() -> new RuntimeException("Client not found"));
-
-        Listing listing = listingRepository.findById(listingId)
-            .orElseThrow(() -> new RuntimeException("Listing not found"));
-
-        FavoriteListing favorite = new FavoriteListing(client, listing);
-        favoriteRepository.save(favorite);
+    public boolean addFavorite(Long userId, Long listingId) {
+        int inserted;
+        try {
+            inserted = favoriteRepository.insertIfAbsent(userId, listingId);
+        } catch (DataIntegrityViolationException e) {
+            // The foreign keys stand in for loading the client and the listing first
+            String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+            throw new RuntimeException(cause.contains("favorite_listings_client_fk") ? "Client not found" : "Listing not found", e);
+        }
+
+        // Saving an existing favorite is a no-op, but it must not be counted again
+        if (inserted == 0) {
+            logger.info("Favorite already exists - User: {}, Listing: {}", userId, listingId);
+            return false;
+        }
+
+        activityRollupService.recordFavoriteAdded(userId);
+        favoriteCounter.recordFavoriteAdded(listingId, userId);
+        favoriteSetCache.invalidate(userId);
         logger.info("Added favorite - User: {}, Listing: {}", userId, listingId);
+        eventPublisher.publishEvent(new FavoriteChangedEvent(userId, listingId, true));
+        return true;
     }
 
+    /**
+     * Unfavorite a listing; repeating it is harmless
+     * @return true if the favorite was removed, false if there was none
+     */
     @Transactional
-    public void removeFavorite(Long userId, Long listingId) {
-        Client client = clientRepository.findByUserId(userId)
-            .orElseThrow(() -> new RuntimeException("Client not found"));
-
-        Listing listing = listingRepository.findById(listingId)
-            .orElseThrow(() -> new RuntimeException("Listing not found"));
-
-        FavoriteListing favorite = favoriteRepository.findByClientAndListing(client, listing)
-            .orElseThrow(() -> new RuntimeException("Favorite not found"));
-
-        favoriteRepository.delete(favorite);
+    public boolean removeFavorite(Long userId, Long listingId) {
+        if (favoriteRepository.deleteByKey(userId, listingId) == 0) {
+            logger.info("Favorite already absent - User: {}, Listing: {}", userId, listingId);
+            return false;
+        }
+
+        activityRollupService.recordFavoriteRemoved(userId);
+        favoriteCounter.recordFavoriteRemoved(listingId, userId);
+        favoriteSetCache.invalidate(userId);
         logger.info("Removed favorite - User: {}, Listing: {}", userId, listingId);
+        eventPublisher.publishEvent(new FavoriteChangedEvent(userId, listingId, false));
+        return true;
     }
 
     @Transactional(readOnly = true)
@@ -68,30 +96,23 @@ public class FavoritesService {
         return favoriteRepository.findFavoritedListingDTOs(userId);
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional: a cache hit needs no connection, and a miss loads in its own query
     public boolean isFavorited(Long userId, Long listingId) {
-        Client client = clientRepository.findByUserId(userId)
-            .orElse(null);
-
-        if (client == null) return false;
-
-        Listing listing = listingRepository.findById(listingId)
-            .orElse(null);
-
-        if (listing == null) return false;
-
-        return favoriteRepository.findByClientAndListing(client, listing).isPresent();
+        return favoriteSetCache.contains(userId, listingId);
     }
 
-    private ListingDTO convertToDTO(Listing listing) {
-        return new ListingDTO(
-            listing.getListingId(),
-            listing.getOwnerId(),
-            listing.getAnimalId(),
-            listing.getDescription(),
-            listing.getPrice(),
-            listing.getStatus(),
-            listing.getCreatedAt()
-        );
+    /**
+     * Favorite status of several listings for one client, from a single lookup of the client's
+     * favorites. The result keeps the order of {@code listingIds}; duplicates and nulls are dropped.
+     */
+    public Map<Long, Boolean> areFavorited(Long userId, Collection<Long> listingIds) {
+        long[] favorited = favoriteSetCache.get(userId);
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long listingId : listingIds) {
+            if (listingId != null) {
+                result.put(listingId, SortedLongArrays.contains(favorited, listingId));
+            }
+        }
+        return result;
     }
 }
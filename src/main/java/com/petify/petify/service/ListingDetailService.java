@@ -0,0 +1,77 @@
+package com.petify.petify.service;
+
+import com.petify.petify.dto.AnimalResponseDTO;
+import com.petify.petify.dto.ListingDTO;
+import com.petify.petify.dto.ListingDetailDTO;
+import com.petify.petify.dto.ReviewDTO;
+import com.petify.petify.dto.UserDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Composes the listing page. The listing is read first because it names the pet and the owner;
+ * the pet, owner, owner reviews and favorite flag are then read concurrently, each in its own
+ * read-only transaction, and verification comes from the in-memory leaderboard.
+ * Not transactional itself: the parts run on other threads.
+ */
+@Service
+public class ListingDetailService {
+
+    private final ListingService listingService;
+    private final PetService petService;
+    private final AuthService authService;
+    private final ReviewService reviewService;
+    private final VerificationService verificationService;
+    private final FavoritesService favoritesService;
+    private final Executor executor;
+
+    public ListingDetailService(ListingService listingService, PetService petService, AuthService authService,
+                                ReviewService reviewService, VerificationService verificationService,
+                                FavoritesService favoritesService,
+                                @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.listingService = listingService;
+        this.petService = petService;
+        this.authService = authService;
+        this.reviewService = reviewService;
+        this.verificationService = verificationService;
+        this.favoritesService = favoritesService;
+        this.executor = executor;
+    }
+
+    /**
+     * @param viewerId user viewing the page, or null if unknown
+     * @throws RuntimeException if the listing, its pet or its owner does not exist
+     */
+    public ListingDetailDTO getListingDetail(Long listingId, Long viewerId) {
+        ListingDTO listing = listingService.getListingById(listingId);
+        Long ownerId = listing.getOwnerId();
+
+        CompletableFuture<AnimalResponseDTO> pet = async(() -> petService.getPetById(listing.getAnimalId()));
+        CompletableFuture<UserDTO> owner = async(() -> authService.getUserById(ownerId));
+        CompletableFuture<List<ReviewDTO>> reviews = async(() -> reviewService.getReviewsByUser(ownerId));
+        CompletableFuture<Boolean> favorited = viewerId == null
+            ? CompletableFuture.completedFuture(null)
+            : async(() -> favoritesService.isFavorited(viewerId, listingId));
+        boolean verified = verificationService.isUserVerified(ownerId);
+
+        try {
+            CompletableFuture.allOf(pet, owner, reviews, favorited).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return new ListingDetailDTO(listing, pet.join(), owner.join(), verified, reviews.join(), favorited.join());
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> part) {
+        return CompletableFuture.supplyAsync(part, executor);
+    }
+}
@@ -0,0 +1,62 @@
+package com.petify.petify.service;
+
+import com.petify.petify.repo.ListingFavoriteCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps listing_favorite_counts in step with favorite_listings. Each change adds +1/-1 to one of
+ * a few stripe rows picked by the client, so favorites of a hot listing by different clients lock
+ * different rows instead of queueing on one; called inside the caller's transaction, so a count
+ * never includes a change that was rolled back. Stripes are merged back into one row periodically.
+ */
+@Service
+public class ListingFavoriteCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListingFavoriteCounter.class);
+
+    private final ListingFavoriteCountRepository countRepository;
+    private final int stripes;
+
+    public ListingFavoriteCounter(ListingFavoriteCountRepository countRepository,
+                                  @Value("${petify.favorites.count-stripes:8}") int stripes) {
+        this.countRepository = countRepository;
+        this.stripes = stripes;
+    }
+
+    @Transactional
+    public void recordFavoriteAdded(Long listingId, Long clientId) {
+        countRepository.addFavorites(listingId, stripeOf(clientId), 1);
+    }
+
+    @Transactional
+    public void recordFavoriteRemoved(Long listingId, Long clientId) {
+        countRepository.addFavorites(listingId, stripeOf(clientId), -1);
+    }
+
+    @Transactional(readOnly = true)
+    public long getCount(Long listingId) {
+        return countRepository.countFavorites(listingId);
+    }
+
+    @Scheduled(fixedDelayString = "${petify.favorites.count-merge-delay-ms:60000}")
+    public void mergeStripes() {
+        try {
+            int merged = countRepository.mergeStripes();
+            if (merged > 0) {
+                logger.debug("Merged favorite count stripes of {} listings", merged);
+            }
+        } catch (Exception e) {
+            logger.error("Error merging favorite count stripes: {}", e.getMessage(), e);
+        }
+    }
+
+    // The same client always lands on the same stripe, so its add and remove cancel out in place
+    private short stripeOf(Long clientId) {
+        return (short) Math.floorMod(clientId, stripes);
+    }
+}
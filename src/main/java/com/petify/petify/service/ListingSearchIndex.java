@@ -0,0 +1,466 @@
+package com.petify.petify.service;
+
+import com.petify.petify.dto.AnimalResponseDTO;
+import com.petify.petify.dto.ListingDTO;
+import com.petify.petify.dto.ListingSearchCriteria;
+import com.petify.petify.dto.ListingSearchResult;
+import com.petify.petify.event.ListingChangedEvent;
+import com.petify.petify.event.PetAddedEvent;
+import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.repo.PetRepository;
+import com.petify.petify.util.ListingCursor;
+import com.petify.petify.util.LongObjectHashMap;
+import com.petify.petify.util.Timestamps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory columnar index of ACTIVE listings for faceted search. Listings are kept in feed
+ * order (createdAt, listingId ascending) in parallel primitive arrays with the attributes of
+ * their animals dictionary-encoded, so a search is one sequential scan that filters, counts
+ * facets and collects the requested page together (about 50 bytes per listing). Loaded at
+ * startup and updated after every committed listing or pet change.
+ */
+@Service
+public class ListingSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListingSearchIndex.class);
+
+    // Largest number of values reported per facet
+    static final int MAX_FACET_VALUES = 50;
+
+    // Code of a missing attribute value; never matches a filter
+    private static final int NONE = -1;
+
+    // Filter code of an attribute the search does not restrict
+    private static final int ANY = -2;
+
+    private final PetRepository petRepository;
+    private final ListingRepository listingRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Columns columns = new Columns(16);
+    private LongObjectHashMap<AnimalCodes> animals = new LongObjectHashMap<>();
+    private Dictionary speciesValues = new Dictionary();
+    private Dictionary breedValues = new Dictionary();
+    private Dictionary typeValues = new Dictionary();
+    private Dictionary locationValues = new Dictionary();
+    private boolean loaded;
+
+    // Non-null while a reload is reading the tables; changes committed meanwhile are replayed on top
+    private List<Runnable> changesDuringReload;
+
+    public ListingSearchIndex(PetRepository petRepository, ListingRepository listingRepository) {
+        this.petRepository = petRepository;
+        this.listingRepository = listingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Rebuild the index from animals and ACTIVE listings
+     */
+    @Transactional(readOnly = true)
+    public void reload() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Dictionary species = new Dictionary();
+        Dictionary breeds = new Dictionary();
+        Dictionary types = new Dictionary();
+        Dictionary locations = new Dictionary();
+        LongObjectHashMap<AnimalCodes> loadedAnimals = new LongObjectHashMap<>();
+        Columns loadedColumns = new Columns(1024);
+        try (Stream<Object[]> rows = petRepository.streamSearchAttributes()) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                loadedAnimals.put(((Number) row[0]).longValue(), new AnimalCodes(
+                    species.encode((String) row[1]), breeds.encode((String) row[2]),
+                    types.encode((String) row[3]), locations.encode((String) row[4])));
+            }
+            // Rows arrive in feed order, so every listing is appended
+            try (Stream<Object[]> listingRows = listingRepository.streamActiveSearchEntries()) {
+                Iterator<Object[]> listingIterator = listingRows.iterator();
+                while (listingIterator.hasNext()) {
+                    Object[] row = listingIterator.next();
+                    loadedColumns.insert(((Number) row[0]).longValue(), toMicros(Timestamps.toLocalDateTime(row[3])),
+                        toCents((BigDecimal) row[2]), loadedAnimals.get(((Number) row[1]).longValue()));
+                }
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            speciesValues = species;
+            breedValues = breeds;
+            typeValues = types;
+            locationValues = locations;
+            animals = loadedAnimals;
+            columns = loadedColumns;
+            changesDuringReload.forEach(Runnable::run);
+            changesDuringReload = null;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} active listings over {} animals for search in {} ms",
+            loadedColumns.size, loadedAnimals.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Listings matching {@code criteria}, newest first, starting after {@code after} (null for
+     * the first page). Facet counts and the total cover every match, not only the page.
+     */
+    public SearchHits search(ListingSearchCriteria criteria, ListingCursor after, int limit) {
+        lock.readLock().lock();
+        try {
+            int species = filterCode(speciesValues, criteria.species());
+            int breed = filterCode(breedValues, criteria.breed());
+            int type = filterCode(typeValues, criteria.type());
+            int location = filterCode(locationValues, criteria.location());
+            if (species == NONE || breed == NONE || type == NONE || location == NONE) {
+                return new SearchHits(new long[0], null, 0, emptyFacets());
+            }
+            long minPrice = criteria.minPrice() == null ? Long.MIN_VALUE
+                : criteria.minPrice().movePointRight(2).setScale(0, RoundingMode.CEILING).longValue();
+            long maxPrice = criteria.maxPrice() == null ? Long.MAX_VALUE
+                : criteria.maxPrice().movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue();
+            long afterMicros = after == null ? Long.MAX_VALUE : toMicros(after.createdAt());
+            long afterListingId = after == null ? Long.MAX_VALUE : after.listingId();
+
+            Columns c = columns;
+            int from = criteria.createdAfter() == null ? 0 : c.firstCreatedAfter(toMicros(criteria.createdAfter()));
+            int[] speciesCounts = new int[speciesValues.size()];
+            int[] breedCounts = new int[breedValues.size()];
+            int[] locationCounts = new int[locationValues.size()];
+            long[] page = new long[limit];
+            int pageSize = 0;
+            int lastOnPage = -1;
+            boolean more = false;
+            int total = 0;
+
+            for (int i = c.size - 1; i >= from; i--) {
+                if ((species != ANY && c.species[i] != species)
+                        || (breed != ANY && c.breeds[i] != breed)
+                        || (type != ANY && c.types[i] != type)
+                        || (location != ANY && c.locations[i] != location)
+                        || c.prices[i] < minPrice || c.prices[i] > maxPrice) {
+                    continue;
+                }
+                total++;
+                count(speciesCounts, c.species[i]);
+                count(breedCounts, c.breeds[i]);
+                count(locationCounts, c.locations[i]);
+                if (c.createdAt[i] < afterMicros
+                        || (c.createdAt[i] == afterMicros && c.listingIds[i] < afterListingId)) {
+                    if (pageSize < limit) {
+                        page[pageSize++] = c.listingIds[i];
+                        lastOnPage = i;
+                    } else {
+                        more = true;
+                    }
+                }
+            }
+
+            ListingCursor next = more
+                ? new ListingCursor(fromMicros(c.createdAt[lastOnPage]), c.listingIds[lastOnPage])
+                : null;
+            return new SearchHits(Arrays.copyOf(page, pageSize), next, total, new ListingSearchResult.Facets(
+                facet(speciesValues, speciesCounts),
+                facet(breedValues, breedCounts),
+                facet(locationValues, locationCounts)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPetAdded(PetAddedEvent event) {
+        AnimalResponseDTO pet = event.pet();
+        write(() -> animals.put(pet.getAnimalId(), new AnimalCodes(
+            speciesValues.encode(pet.getSpecies()), breedValues.encode(pet.getBreed()),
+            typeValues.encode(pet.getType()), locationValues.encode(pet.getLocatedName()))));
+    }
+
+    @TransactionalEventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        ListingDTO listing = event.listing();
+        long listingId = listing.getListingId();
+        long createdAt = toMicros(Timestamps.roundToMicros(listing.getCreatedAt()));
+        boolean active = "ACTIVE".equals(listing.getStatus()) && event.type() != ListingChangedEvent.Type.DELETED;
+        long price = toCents(listing.getPrice());
+        write(() -> {
+            columns.remove(listingId, createdAt);
+            if (active) {
+                columns.insert(listingId, createdAt, price, animals.get(listing.getAnimalId()));
+            }
+        });
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int filterCode(Dictionary dictionary, String value) {
+        return value == null || value.isBlank() ? ANY : dictionary.find(value);
+    }
+
+    private static void count(int[] counts, int code) {
+        if (code >= 0) {
+            counts[code]++;
+        }
+    }
+
+    // Most frequent first, ties by value
+    private static Map<String, Integer> facet(Dictionary dictionary, int[] counts) {
+        List<Integer> codes = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                codes.add(code);
+            }
+        }
+        codes.sort(Comparator.<Integer>comparingInt(code -> counts[code]).reversed()
+            .thenComparing(dictionary::label));
+        Map<String, Integer> facet = new LinkedHashMap<>();
+        for (int code : codes.subList(0, Math.min(MAX_FACET_VALUES, codes.size()))) {
+            facet.put(dictionary.label(code), counts[code]);
+        }
+        return facet;
+    }
+
+    private static ListingSearchResult.Facets emptyFacets() {
+        return new ListingSearchResult.Facets(Map.of(), Map.of(), Map.of());
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static long toMicros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+            (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Matching listing IDs of one page in feed order, the cursor of the next page (null on the
+     * last page), and the total and facet counts of all matches
+     */
+    public record SearchHits(long[] listingIds, ListingCursor next, int total, ListingSearchResult.Facets facets) {
+    }
+
+    private record AnimalCodes(int species, int breed, int type, int location) {
+    }
+
+    /**
+     * Case-insensitive mapping between attribute values and dense int codes. A value is
+     * reported with the spelling it was first seen with.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> labels = new ArrayList<>();
+
+        int encode(String value) {
+            if (value == null || value.isBlank()) {
+                return NONE;
+            }
+            return codes.computeIfAbsent(normalize(value), key -> {
+                labels.add(value.trim());
+                return labels.size() - 1;
+            });
+        }
+
+        int find(String value) {
+            Integer code = codes.get(normalize(value));
+            return code == null ? NONE : code;
+        }
+
+        String label(int code) {
+            return labels.get(code);
+        }
+
+        int size() {
+            return labels.size();
+        }
+
+        private static String normalize(String value) {
+            return value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Parallel arrays sorted by (createdAt, listingId). New listings are normally the newest and
+     * are appended; anything else shifts the tail.
+     */
+    private static final class Columns {
+
+        long[] listingIds;
+        long[] createdAt;
+        long[] prices;
+        int[] species;
+        int[] breeds;
+        int[] types;
+        int[] locations;
+        int size;
+
+        Columns(int capacity) {
+            listingIds = new long[capacity];
+            createdAt = new long[capacity];
+            prices = new long[capacity];
+            species = new int[capacity];
+            breeds = new int[capacity];
+            types = new int[capacity];
+            locations = new int[capacity];
+        }
+
+        /**
+         * Add a listing unless it is already present. Listings of unknown animals match no
+         * attribute filter.
+         */
+        void insert(long listingId, long created, long price, AnimalCodes animal) {
+            int position = position(created, listingId);
+            if (position < size && listingIds[position] == listingId && createdAt[position] == created) {
+                return;
+            }
+            if (size == listingIds.length) {
+                grow();
+            }
+            shift(position, position + 1, size - position);
+            listingIds[position] = listingId;
+            createdAt[position] = created;
+            prices[position] = price;
+            species[position] = animal == null ? NONE : animal.species();
+            breeds[position] = animal == null ? NONE : animal.breed();
+            types[position] = animal == null ? NONE : animal.type();
+            locations[position] = animal == null ? NONE : animal.location();
+            size++;
+        }
+
+        void remove(long listingId, long created) {
+            int position = position(created, listingId);
+            if (position >= size || listingIds[position] != listingId || createdAt[position] != created) {
+                // Not where its creation time says; fall back to a scan
+                position = -1;
+                for (int i = 0; i < size; i++) {
+                    if (listingIds[i] == listingId) {
+                        position = i;
+                        break;
+                    }
+                }
+                if (position < 0) {
+                    return;
+                }
+            }
+            shift(position + 1, position, size - position - 1);
+            size--;
+        }
+
+        /**
+         * Index of the first listing created strictly after {@code micros}
+         */
+        int firstCreatedAfter(long micros) {
+            return position(micros, Long.MAX_VALUE);
+        }
+
+        // Index of the first entry not less than (created, listingId)
+        private int position(long created, long listingId) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (createdAt[mid] < created || (createdAt[mid] == created && listingIds[mid] < listingId)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void shift(int from, int to, int length) {
+            if (length <= 0) {
+                return;
+            }
+            System.arraycopy(listingIds, from, listingIds, to, length);
+            System.arraycopy(createdAt, from, createdAt, to, length);
+            System.arraycopy(prices, from, prices, to, length);
+            System.arraycopy(species, from, species, to, length);
+            System.arraycopy(breeds, from, breeds, to, length);
+            System.arraycopy(types, from, types, to, length);
+            System.arraycopy(locations, from, locations, to, length);
+        }
+
+        private void grow() {
+            int capacity = listingIds.length * 2;
+            listingIds = Arrays.copyOf(listingIds, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            species = Arrays.copyOf(species, capacity);
+            breeds = Arrays.copyOf(breeds, capacity);
+            types = Arrays.copyOf(types, capacity);
+            locations = Arrays.copyOf(locations, capacity);
+        }
+    }
+}
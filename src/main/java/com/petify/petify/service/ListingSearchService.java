@@ -0,0 +1,73 @@
+package com.petify.petify.service;
+
+import com.petify.petify.dto.ListingSearchCriteria;
+import com.petify.petify.dto.ListingSearchResult;
+import com.petify.petify.repo.PublicListingCardView;
+import com.petify.petify.repo.PublicListingRepository;
+import com.petify.petify.util.ListingCursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Faceted search over ACTIVE listings. Matching and facet counting run on the in-memory
+ * ListingSearchIndex; only the cards of the returned page are read from the database.
+ */
+@Service
+public class ListingSearchService {
+
+    private final ListingSearchIndex searchIndex;
+    private final PublicListingRepository publicListingRepository;
+    private final Timer searchTimer;
+
+    public ListingSearchService(ListingSearchIndex searchIndex, PublicListingRepository publicListingRepository,
+                                MeterRegistry meterRegistry) {
+        this.searchIndex = searchIndex;
+        this.publicListingRepository = publicListingRepository;
+        this.searchTimer = Timer.builder("petify.listings.search")
+            .description("Time taken to search listings, including loading the page of cards")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    /**
+     * One page of listings matching {@code criteria}, newest first
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     * @throws IllegalStateException if the index has not been loaded yet
+     */
+    @Transactional(readOnly = true)
+    public ListingSearchResult search(ListingSearchCriteria criteria, String cursor, int limit) {
+        if (!searchIndex.isLoaded()) {
+            throw new IllegalStateException("Listing search is starting up, try again shortly");
+        }
+        ListingCursor after = cursor == null || cursor.isBlank() ? null : ListingCursor.decode(cursor);
+        return searchTimer.record(() -> {
+            ListingSearchIndex.SearchHits hits = searchIndex.search(criteria, after, limit);
+            List<PublicListingCardView> items = new ArrayList<>(hits.listingIds().length);
+            if (hits.listingIds().length > 0) {
+                Map<Long, PublicListingCardView> cards = publicListingRepository
+                    .findActiveListingCardsByIds(Arrays.stream(hits.listingIds()).boxed().toList())
+                    .stream()
+                    .collect(Collectors.toMap(PublicListingCardView::getListingId, Function.identity()));
+                // Keep index order; a listing deactivated since the scan is skipped
+                for (long listingId : hits.listingIds()) {
+                    PublicListingCardView card = cards.get(listingId);
+                    if (card != null) {
+                        items.add(card);
+                    }
+                }
+            }
+            return new ListingSearchResult(items, hits.next() == null ? null : hits.next().encode(),
+                hits.total(), hits.facets());
+        });
+    }
+}
@@ -2,29 +2,55 @@ package com.petify.petify.service;
 
 import com.petify.petify.domain.Listing;
 import com.petify.petify.domain.Owner;
+import com.petify.petify.dto.AdminListingDTO;
+import com.petify.petify.dto.BatchResult;
 import com.petify.petify.dto.CreateListingRequest;
+import com.petify.petify.dto.CursorPage;
 import com.petify.petify.dto.ListingDTO;
+import com.petify.petify.event.ListingChangedEvent;
 import com.petify.petify.repo.ListingRepository;
 import com.petify.petify.repo.OwnerRepository;
+import com.petify.petify.repo.PublicListingCardView;
+import com.petify.petify.util.ListingCursor;
+import com.petify.petify.util.Timestamps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
 
 @Service
 public class ListingService {
 
     private static final Logger logger = LoggerFactory.getLogger(ListingService.class);
 
+    // Words of a full-text search beyond this are ignored
+    static final int MAX_SEARCH_TERMS = 8;
+
     private final ListingRepository listingRepository;
     private final OwnerRepository ownerRepository;
-
-    public ListingService(ListingRepository listingRepository, OwnerRepository ownerRepository) {
+    private final RecommendationService recommendationService;
+    private final ActivityRollupService activityRollupService;
+    private final ListingFavoriteCounter favoriteCounter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ListingService(ListingRepository listingRepository, OwnerRepository ownerRepository,
+                          RecommendationService recommendationService, ActivityRollupService activityRollupService,
+                          ListingFavoriteCounter favoriteCounter, ApplicationEventPublisher eventPublisher) {
         this.listingRepository = listingRepository;
         this.ownerRepository = ownerRepository;
+        this.recommendationService = recommendationService;
+        this.activityRollupService = activityRollupService;
+        this.favoriteCounter = favoriteCounter;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -32,7 +58,8 @@ public class ListingService {
      */
     @Transactional
     public ListingDTO createListing(Long userId, CreateListingRequest request) {
-        // Check if user is an owner
+        // The OWNER role is checked on the caller's token; a token from before the owner row
+        // was removed still ends here
         Owner owner = ownerRepository.findByUserId(userId)
             .orElseThrow(() -> new RuntimeException("User is not an owner. Only owners can create listings."));
 
@@ -47,36 +74,45 @@ public class ListingService {
         );
 
         Listing savedListing = listingRepository.save(listing);
+        activityRollupService.recordListingCreated(userId, savedListing.getCreatedAt());
 
         logger.info("Listing created successfully - ID: {}, Owner ID: {}, Animal ID: {}",
             savedListing.getListingId(), userId, request.getAnimalId());
 
-        return mapToDTO(savedListing);
+        ListingDTO dto = mapToDTO(savedListing);
+        eventPublisher.publishEvent(new ListingChangedEvent(ListingChangedEvent.Type.CREATED, dto));
+        return dto;
     }
 
     /**
-     * Get all listings for a specific owner
+     * Get all listings for a specific owner, newest first, with their favorite counts
      */
     @Transactional(readOnly = true)
     public List<ListingDTO> getListingsByOwner(Long userId) {
         Owner owner = ownerRepository.findByUserId(userId)
             .orElseThrow(() -> new RuntimeException("Owner not found"));
 
-        return listingRepository.findByOwner(owner)
-            .stream()
-            .map(this::mapToDTO)
-            .collect(Collectors.toList());
+        return listingRepository.findListingDTOsByOwnerId(owner.getUserId());
     }
 
     /**
-     * Get all active listings
+     * Get one page of active listings, newest first
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit page size
+     * @throws IllegalArgumentException if the cursor is malformed
      */
     @Transactional(readOnly = true)
-    public List<ListingDTO> getActiveListings() {
-        return listingRepository.findByStatus("ACTIVE")
-            .stream()
-            .map(this::mapToDTO)
-            .collect(Collectors.toList());
+    public CursorPage<ListingDTO> getActiveListings(String cursor, int limit) {
+        Limit fetch = Limit.of(limit + 1);
+        List<ListingDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = listingRepository.findActiveListingDTOs(fetch);
+        } else {
+            ListingCursor position = ListingCursor.decode(cursor);
+            rows = listingRepository.findActiveListingDTOsBefore(position.createdAt(), position.listingId(), fetch);
+        }
+        return CursorPage.of(rows, limit,
+            listing -> new ListingCursor(listing.getCreatedAt(), listing.getListingId()).encode());
     }
 
     /**
@@ -84,27 +120,78 @@ public class ListingService {
      */
     @Transactional(readOnly = true)
     public List<ListingDTO> getAllListings() {
-        return listingRepository.findAll()
-            .stream()
-            .map(this::mapToDTO)
-            .collect(Collectors.toList());
+        return listingRepository.findAllListingDTOs();
+    }
+
+    /**
+     * Get one page of listings for the admin view in ID order, starting after the given listing ID
+     * (keyset pagination). Owner and animal details come from the same query.
+     * @param after last listing ID of the previous page, or null for the first page
+     * @param status only listings with this status, or null for all
+     * @param ownerId only listings of this owner, or null for all
+     * @param limit page size
+     */
+    @Transactional(readOnly = true)
+    public List<AdminListingDTO> getAdminListings(Long after, String status, Long ownerId, int limit) {
+        return listingRepository.findAdminListingsAfter(
+            after != null ? after : 0L,
+            status != null && !status.isBlank() ? status.toUpperCase() : null,
+            ownerId,
+            Limit.of(limit));
+    }
+
+    /**
+     * Full-text search of ACTIVE listings by pet name, breed, species and description.
+     * Every word must match, each as a prefix; results are ranked by relevance, then newest.
+     * @throws IllegalArgumentException if the text contains no searchable words
+     */
+    @Transactional(readOnly = true)
+    public List<PublicListingCardView> searchListings(String text, int limit) {
+        String query = toPrefixQuery(text);
+        if (query.isEmpty()) {
+            throw new IllegalArgumentException("Search text must contain at least one letter or digit");
+        }
+        List<PublicListingCardView> results = new ArrayList<>();
+        for (Object[] row : listingRepository.searchActiveListings(query, limit)) {
+            results.add(new PublicListingCardView(
+                ((Number) row[0]).longValue(),
+                (BigDecimal) row[1],
+                (String) row[2],
+                Timestamps.toLocalDateTime(row[3]),
+                ((Number) row[4]).longValue(),
+                ((Number) row[5]).longValue(),
+                ((Number) row[6]).longValue()));
+        }
+        return results;
+    }
+
+    /**
+     * Turn free text into a tsquery of prefix terms, e.g. "Golden retr" -> "golden:* & retr:*".
+     * Only letters and digits survive, so the result is always valid tsquery syntax.
+     */
+    static String toPrefixQuery(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text != null) {
+            for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty() && terms.size() < MAX_SEARCH_TERMS) {
+                    terms.add(word + ":*");
+                }
+            }
+        }
+        return String.join(" & ", terms);
     }
 
     /**
      * Get recommended listings for a user based on their favorites
      * Uses collaborative filtering and content-based filtering
      */
-    @Transactional(readOnly = true)
     public List<ListingDTO> getRecommendedListings(Long userId) {
         logger.info("Fetching recommended listings for user ID: {}", userId);
 
         try {
-            List<Object[]> results = listingRepository.findRecommendedListings(userId);
+            List<ListingDTO> results = recommendationService.getRecommendedListings(userId);
             logger.info("Found {} recommended listings", results.size());
-
-            return results.stream()
-                .map(this::mapRecommendationToDTO)
-                .collect(Collectors.toList());
+            return results;
         } catch (Exception e) {
             logger.error("Error fetching recommended listings: {}", e.getMessage(), e);
             return List.of();
@@ -112,26 +199,20 @@ public class ListingService {
     }
 
     /**
-     * Map recommendation query result to ListingDTO
+     * Get a specific listing by ID
      */
-    private ListingDTO mapRecommendationToDTO(Object[] result) {
-        // Result columns: listing_id, title, species, breed, location, created_at, cf_score, liked_by_similar_users, content_score, final_score
-        Long listingId = ((Number) result[0]).longValue();
-
-        // Get the actual listing to map to DTO properly
-        return listingRepository.findById(listingId)
-            .map(this::mapToDTO)
-            .orElse(null);
+    @Transactional(readOnly = true)
+    public ListingDTO getListingById(Long listingId) {
+        return listingRepository.findListingDTOById(listingId)
+            .orElseThrow(() -> new RuntimeException("Listing not found"));
     }
 
     /**
-     * Get a specific listing by ID
+     * Get several listings in one query, in the order of {@code listingIds}
      */
     @Transactional(readOnly = true)
-    public ListingDTO getListingById(Long listingId) {
-        Listing listing = listingRepository.findById(listingId)
-            .orElseThrow(() -> new RuntimeException("Listing not found"));
-        return mapToDTO(listing);
+    public BatchResult<ListingDTO> getListingsByIds(Collection<Long> listingIds) {
+        return BatchResult.of(listingIds, listingRepository.findListingDTOsByIds(listingIds), ListingDTO::getListingId);
     }
 
     /**
@@ -164,7 +245,10 @@ public class ListingService {
             updatedListing.getListingId(), updatedListing.getOwnerId(), updatedListing.getStatus());
         logger.info("=== END UPDATE LISTING STATUS - SUCCESS ===");
 
-        return mapToDTO(updatedListing);
+        ListingDTO dto = mapToDTO(updatedListing);
+        dto.setFavoriteCount(favoriteCounter.getCount(listingId));
+        eventPublisher.publishEvent(new ListingChangedEvent(ListingChangedEvent.Type.STATUS_CHANGED, dto));
+        return dto;
     }
 
     /**
@@ -180,8 +264,11 @@ public class ListingService {
             throw new RuntimeException("You can only delete your own listings");
         }
 
+        activityRollupService.recordListingDeleted(listingId, listing.getOwnerId(), listing.getCreatedAt());
         listingRepository.delete(listing);
         logger.info("Listing deleted - ID: {}, Owner ID: {}", listingId, userId);
+
+        eventPublisher.publishEvent(new ListingChangedEvent(ListingChangedEvent.Type.DELETED, mapToDTO(listing)));
     }
 
     /**
@@ -0,0 +1,202 @@
+package com.petify.petify.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and verifies passwords on a small fixed pool so a burst of logins queues here instead of
+ * tying up request threads. When the queue is full the call fails fast with
+ * {@link RejectedExecutionException}, which the auth endpoints answer with 503.
+ * <p>
+ * New hashes are bcrypt with a cost calibrated at startup so one hash takes about
+ * {@code petify.auth.password.target-hash-time} on this machine, unless
+ * {@code petify.auth.password.cost} pins it. Stored passwords without an encoder prefix are the
+ * legacy plaintext values and still match; {@link #needsRehash} tells the caller to replace them,
+ * and bcrypt hashes of a different cost, after a successful login.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+    private static final String BCRYPT_ID = "bcrypt";
+
+    private final int cost;
+    private final DelegatingPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(MeterRegistry registry,
+                                  @Value("${petify.auth.password.cost:0}") int cost,
+                                  @Value("${petify.auth.password.target-hash-time:250ms}") Duration targetHashTime,
+                                  @Value("${petify.auth.password.threads:0}") int threads,
+                                  @Value("${petify.auth.password.queue-capacity:64}") int queueCapacity) {
+        this.cost = cost > 0 ? cost : calibrate(targetHashTime);
+        this.encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(
+            BCRYPT_ID, new BCryptPasswordEncoder(this.cost),
+            "noop", NoOpPasswordEncoder.getInstance()));
+        // Rows written before hashing was enabled have no {id} prefix and hold the password itself
+        this.encoder.setDefaultPasswordEncoderForMatches(NoOpPasswordEncoder.getInstance());
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("petify.auth.password.hash")
+            .description("Time to hash or verify a password on the hashing pool, excluding queueing")
+            .tag("operation", "encode")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.matchesTimer = Timer.builder("petify.auth.password.hash")
+            .description("Time to hash or verify a password on the hashing pool, excluding queueing")
+            .tag("operation", "matches")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.rejected = Counter.builder("petify.auth.password.rejected")
+            .description("Hash requests turned away because the hashing queue was full")
+            .register(registry);
+        Gauge.builder("petify.auth.password.queue", executor, pool -> pool.getQueue().size())
+            .description("Hash requests waiting for a hashing thread")
+            .register(registry);
+        Gauge.builder("petify.auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Hashing threads currently busy")
+            .register(registry);
+        Gauge.builder("petify.auth.password.cost", this, service -> service.cost)
+            .description("bcrypt cost used for new hashes")
+            .register(registry);
+
+        logger.info("Password hashing: bcrypt cost {}, {} threads, queue capacity {}", this.cost, poolSize, queueCapacity);
+    }
+
+    /**
+     * Hash a raw password for storage
+     * @throws RejectedExecutionException when the hashing queue is full
+     */
+    public String encode(String rawPassword) {
+        return run(() -> encodeTimer.record(() -> encoder.encode(rawPassword)));
+    }
+
+    /**
+     * Check a raw password against a stored value
+     * @throws RejectedExecutionException when the hashing queue is full
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> matchesTimer.record(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Whether a stored value that just matched should be replaced by a fresh hash: it is legacy
+     * plaintext, uses another encoder, or is bcrypt with a lower cost than new hashes get. Stronger
+     * hashes are kept, so an instance that calibrated lower never downgrades them
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encoder.upgradeEncoding(encodedPassword)) {
+            return true;
+        }
+        String hash = encodedPassword.substring(encodedPassword.indexOf('}') + 1);
+        return costOf(hash) < cost;
+    }
+
+    /**
+     * The bcrypt cost used for new hashes
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * The underlying encoder, which runs on the caller's thread; exposed as the application's
+     * PasswordEncoder bean
+     */
+    public PasswordEncoder getEncoder() {
+        return encoder;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // Runs a task on the hashing pool and waits for it; package-private so tests can occupy the pool
+    <T> T run(Callable<T> task) {
+        try {
+            return executor.submit(task).get();
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+    }
+
+    /**
+     * Highest cost whose hash takes no longer than {@code target}, within [MIN_COST, MAX_COST].
+     * Each cost step doubles the work, so one timed hash at MIN_COST is enough to extrapolate.
+     */
+    static int calibrate(Duration target) {
+        String salt = BCrypt.gensalt(MIN_COST);
+        BCrypt.hashpw("calibration", salt); // warm-up, JIT
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", salt);
+        long elapsed = Math.max(System.nanoTime() - start, 1);
+
+        int steps = 0;
+        while (MIN_COST + steps < MAX_COST && elapsed << (steps + 1) <= target.toNanos()) {
+            steps++;
+        }
+        logger.info("bcrypt cost {} takes {}ms here; calibrated to cost {} for a {}ms target",
+            MIN_COST, elapsed / 1_000_000, MIN_COST + steps, target.toMillis());
+        return MIN_COST + steps;
+    }
+
+    // "$2a$12$..." -> 12, or -1 when the value is not a bcrypt hash
+    static int costOf(String hash) {
+        if (hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
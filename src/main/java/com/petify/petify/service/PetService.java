@@ -4,16 +4,22 @@ import com.petify.petify.domain.Owner;
 import com.petify.petify.domain.Pet;
 import com.petify.petify.domain.User;
 import com.petify.petify.dto.AnimalResponseDTO;
+import com.petify.petify.dto.BatchResult;
 import com.petify.petify.dto.CreatePetRequest;
+import com.petify.petify.event.PetAddedEvent;
 import com.petify.petify.repo.OwnerRepository;
 import com.petify.petify.repo.PetRepository;
 import com.petify.petify.repo.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.Collection;
+import java.util.List;
+
 @Service
 public class PetService {
 
@@ -22,11 +28,16 @@ public class PetService {
     private final PetRepository petRepository;
     private final UserRepository userRepository;
     private final OwnerRepository ownerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserRoleCache userRoleCache;
 
-    public PetService(PetRepository petRepository, UserRepository userRepository, OwnerRepository ownerRepository) {
+    public PetService(PetRepository petRepository, UserRepository userRepository, OwnerRepository ownerRepository,
+                      ApplicationEventPublisher eventPublisher, UserRoleCache userRoleCache) {
         this.petRepository = petRepository;
         this.userRepository = userRepository;
         this.ownerRepository = ownerRepository;
+        this.eventPublisher = eventPublisher;
+        this.userRoleCache = userRoleCache;
     }
 
     /**
@@ -71,6 +82,7 @@ public class PetService {
                     logger.info("⚠User {} is a CLIENT, promoting to OWNER", userId);
                     Owner newOwner = new Owner(user);
                     Owner savedOwner = ownerRepository.save(newOwner);
+                    userRoleCache.invalidate(userId);
                     logger.info(" User promoted to OWNER with ID: {}", savedOwner.getUserId());
                     return savedOwner;
                 });
@@ -94,7 +106,7 @@ public class PetService {
                 savedPet.getAnimalId(), userId, savedPet.getName());
 
         AnimalResponseDTO result = new AnimalResponseDTO(savedPet);
-
+        eventPublisher.publishEvent(new PetAddedEvent(result));
 
         return result;
     }
@@ -117,4 +129,15 @@ public class PetService {
         logger.info("Pet found: {}", pet.getName());
         return new AnimalResponseDTO(pet);
     }
+
+    /**
+     * Get several pets in one query, in the order of {@code petIds}
+     */
+    @Transactional(readOnly = true)
+    public BatchResult<AnimalResponseDTO> getPetsByIds(Collection<Long> petIds) {
+        List<AnimalResponseDTO> pets = petRepository.findAllWithOwnerByIds(petIds).stream()
+                .map(AnimalResponseDTO::new)
+                .toList();
+        return BatchResult.of(petIds, pets, AnimalResponseDTO::getAnimalId);
+    }
 }
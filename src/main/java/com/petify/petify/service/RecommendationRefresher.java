@@ -0,0 +1,52 @@
+package com.petify.petify.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Background job that keeps the recommendation store up to date for dirty users
+ */
+@Component
+public class RecommendationRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationRefresher.class);
+
+    private final RecommendationService recommendationService;
+    private final int batchSize;
+
+    public RecommendationRefresher(RecommendationService recommendationService,
+                                   @Value("${petify.recommendations.refresh-batch-size:200}") int batchSize) {
+        this.recommendationService = recommendationService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${petify.recommendations.refresh-delay-ms:5000}")
+    public void refresh() {
+        try {
+            recommendationService.resolvePendingChanges();
+        } catch (Exception e) {
+            logger.error("Error resolving users affected by recent changes: {}", e.getMessage(), e);
+        }
+
+        Map<Long, Instant> dirtyUsers = recommendationService.drainDirtyUsers(batchSize);
+        if (dirtyUsers.isEmpty()) {
+            return;
+        }
+
+        logger.info("Refreshing stored recommendations for {} users", dirtyUsers.size());
+        dirtyUsers.forEach((userId, since) -> {
+            try {
+                recommendationService.refreshUser(userId);
+            } catch (Exception e) {
+                logger.error("Error refreshing recommendations for user {}: {}", userId, e.getMessage(), e);
+                recommendationService.markDirty(userId, since);
+            }
+        });
+    }
+}
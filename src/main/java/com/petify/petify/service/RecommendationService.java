@@ -0,0 +1,307 @@
+package com.petify.petify.service;
+
+import com.petify.petify.domain.UserRecommendation;
+import com.petify.petify.domain.UserRecommendationRun;
+import com.petify.petify.dto.ListingDTO;
+import com.petify.petify.dto.RecommendedListingDTO;
+import com.petify.petify.event.FavoriteChangedEvent;
+import com.petify.petify.event.ListingChangedEvent;
+import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.repo.UserRecommendationRepository;
+import com.petify.petify.repo.UserRecommendationRunRepository;
+import com.petify.petify.util.LongLongHashMap;
+import com.petify.petify.util.Timestamps;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Serves listing recommendations from a per-user store (user_recommendations) that is
+ * rebuilt in the background only for users affected by favorite or listing status changes.
+ * Stored results older than the configured staleness bound are recomputed on read.
+ * Scores come from the in-memory co-occurrence and content indexes or from the single
+ * recommendation query, depending on petify.recommendations.engine.
+ */
+@Service
+public class RecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationService.class);
+
+    private static final int RECOMMENDATION_LIMIT = 20;
+
+    /**
+     * Where scores come from: the in-memory indexes or the single recommendation query
+     */
+    public enum Engine { MEMORY, SQL }
+
+    private final ListingRepository listingRepository;
+    private final UserRecommendationRepository recommendationRepository;
+    private final UserRecommendationRunRepository runRepository;
+    private final CollaborativeFilteringEngine collaborativeFilteringEngine;
+    private final ContentSimilarityIndex contentSimilarityIndex;
+    private final Engine engine;
+    private final Duration maxStaleness;
+
+    // User ID -> time of the oldest change not yet reflected in that user's stored recommendations
+    private final Map<Long, Instant> dirtyUsers = new ConcurrentHashMap<>();
+
+    // Changes whose affected users still have to be looked up
+    private final Queue<PendingChange> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    public RecommendationService(ListingRepository listingRepository,
+                                 UserRecommendationRepository recommendationRepository,
+                                 UserRecommendationRunRepository runRepository,
+                                 CollaborativeFilteringEngine collaborativeFilteringEngine,
+                                 ContentSimilarityIndex contentSimilarityIndex,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${petify.recommendations.engine:memory}") Engine engine,
+                                 @Value("${petify.recommendations.max-staleness:10m}") Duration maxStaleness) {
+        this.listingRepository = listingRepository;
+        this.recommendationRepository = recommendationRepository;
+        this.runRepository = runRepository;
+        this.collaborativeFilteringEngine = collaborativeFilteringEngine;
+        this.contentSimilarityIndex = contentSimilarityIndex;
+        this.engine = engine;
+        this.maxStaleness = maxStaleness;
+
+        Gauge.builder("petify.recommendations.refresh.lag", this, RecommendationService::refreshLagSeconds)
+            .description("Age of the oldest change not yet applied to the recommendation store")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("petify.recommendations.refresh.pending", dirtyUsers, Map::size)
+            .description("Users waiting for a recommendation refresh")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get recommended listings for a user.
+     * Served from the store when it is fresh enough, otherwise computed on the spot; in the
+     * latter case the refresher persists the result so the next read is a plain lookup.
+     */
+    @Transactional(readOnly = true)
+    public List<ListingDTO> getRecommendedListings(Long userId) {
+        Optional<UserRecommendationRun> run = runRepository.findById(userId);
+        if (run.isPresent() && !isStale(run.get())) {
+            logger.debug("Serving stored recommendations for user {}", userId);
+            return mapRows(recommendationRepository.findStoredRecommendations(userId));
+        }
+
+        logger.info("Stored recommendations for user {} are missing or stale, computing them", userId);
+        markDirty(userId, Instant.now());
+        return new ArrayList<>(computeRecommendations(userId));
+    }
+
+    /**
+     * Recompute and store the recommendations of a single user
+     */
+    @Transactional
+    public void refreshUser(Long userId) {
+        List<RecommendedListingDTO> computed = computeRecommendations(userId);
+
+        recommendationRepository.deleteByUserId(userId);
+        runRepository.save(new UserRecommendationRun(userId, LocalDateTime.now()));
+
+        List<UserRecommendation> recommendations = new ArrayList<>(computed.size());
+        int rank = 0;
+        for (RecommendedListingDTO dto : computed) {
+            recommendations.add(new UserRecommendation(userId, dto.getListingId(), rank++, dto.getCfScore(),
+                dto.getLikedBySimilarUsers(), dto.getContentScore(), dto.getFinalScore()));
+        }
+        recommendationRepository.saveAll(recommendations);
+        logger.debug("Stored {} recommendations for user {}", recommendations.size(), userId);
+    }
+
+    /**
+     * Compute the top recommendations of a user with the configured engine
+     */
+    List<RecommendedListingDTO> computeRecommendations(Long userId) {
+        return engine == Engine.MEMORY ? computeInMemory(userId) : computeWithSql(userId);
+    }
+
+    List<RecommendedListingDTO> computeWithSql(Long userId) {
+        return listingRepository.findRecommendedListings(userId).stream()
+            .map(this::mapRecommendationToDTO)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Same ranking as computeWithSql, scored entirely from the in-memory co-occurrence and
+     * content indexes; only the final top listings are read from the database.
+     */
+    List<RecommendedListingDTO> computeInMemory(Long userId) {
+        CollaborativeFilteringEngine.Candidates cf = collaborativeFilteringEngine.candidates(userId);
+        LongLongHashMap contentScores = contentSimilarityIndex.contentScores(cf.likedListings());
+
+        LongLongHashMap finalScores = new LongLongHashMap(cf.cfScores().size() + contentScores.size());
+        cf.cfScores().forEach((listingId, cfScore) -> finalScores.addTo(listingId, cfScore * 3));
+        contentScores.forEach((listingId, contentScore) -> finalScores.addTo(listingId, contentScore * 2));
+
+        long[] ranked = contentSimilarityIndex.rankActive(finalScores, userId, RECOMMENDATION_LIMIT);
+        if (ranked.length == 0) {
+            return new ArrayList<>();
+        }
+
+        List<Long> listingIds = new ArrayList<>(ranked.length);
+        for (long listingId : ranked) {
+            listingIds.add(listingId);
+        }
+        Map<Long, Object[]> rows = new HashMap<>();
+        for (Object[] row : listingRepository.findRecommendationCandidates(listingIds, userId)) {
+            rows.put(((Number) row[0]).longValue(), row);
+        }
+
+        List<RecommendedListingDTO> recommendations = new ArrayList<>(ranked.length);
+        for (long listingId : ranked) {
+            Object[] row = rows.get(listingId);
+            // Missing only if the listing changed after the indexes were read
+            if (row != null) {
+                recommendations.add(mapRecommendationToDTO(row, cf.cfScores().get(listingId),
+                    cf.likedBySimilarUsers().get(listingId), contentScores.get(listingId),
+                    finalScores.get(listingId)));
+            }
+        }
+        return recommendations;
+    }
+
+    /**
+     * Turn queued favorite/listing changes into dirty users
+     */
+    @Transactional(readOnly = true)
+    public void resolvePendingChanges() {
+        PendingChange change;
+        while ((change = pendingChanges.poll()) != null) {
+            List<Long> affectedUsers = change.userId() != null
+                ? recommendationRepository.findStoredUsersAffectedByFavorite(change.userId(), change.listingId())
+                : recommendationRepository.findUserIdsByListingId(change.listingId());
+            for (Long affectedUser : affectedUsers) {
+                markDirty(affectedUser, change.occurredAt());
+            }
+            logger.debug("Change on listing {} affects {} stored users", change.listingId(), affectedUsers.size());
+        }
+    }
+
+    /**
+     * Remove up to {@code max} dirty users from the queue and return them with their dirty-since times
+     */
+    public Map<Long, Instant> drainDirtyUsers(int max) {
+        Map<Long, Instant> drained = new HashMap<>();
+        Iterator<Map.Entry<Long, Instant>> iterator = dirtyUsers.entrySet().iterator();
+        while (iterator.hasNext() && drained.size() < max) {
+            Map.Entry<Long, Instant> entry = iterator.next();
+            if (dirtyUsers.remove(entry.getKey(), entry.getValue())) {
+                drained.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Mark a user for refresh, keeping the earliest change time if already marked
+     */
+    public void markDirty(Long userId, Instant since) {
+        dirtyUsers.merge(userId, since, (current, candidate) -> current.isBefore(candidate) ? current : candidate);
+    }
+
+    @TransactionalEventListener
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        Instant now = Instant.now();
+        markDirty(event.userId(), now);
+        pendingChanges.add(new PendingChange(event.userId(), event.listingId(), now));
+    }
+
+    @TransactionalEventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        // A listing that leaves ACTIVE drops out of every stored list that contains it. Newly
+        // active listings cannot be attributed to specific users and are picked up once the
+        // stored results exceed the staleness bound.
+        if (event.type() == ListingChangedEvent.Type.STATUS_CHANGED
+                && !"ACTIVE".equals(event.listing().getStatus())) {
+            pendingChanges.add(new PendingChange(null, event.listing().getListingId(), Instant.now()));
+        }
+    }
+
+    double refreshLagSeconds() {
+        Instant oldest = null;
+        for (Instant since : dirtyUsers.values()) {
+            if (oldest == null || since.isBefore(oldest)) {
+                oldest = since;
+            }
+        }
+        PendingChange head = pendingChanges.peek();
+        if (head != null && (oldest == null || head.occurredAt().isBefore(oldest))) {
+            oldest = head.occurredAt();
+        }
+        return oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis() / 1000.0;
+    }
+
+    private boolean isStale(UserRecommendationRun run) {
+        return run.getComputedAt().isBefore(LocalDateTime.now().minus(maxStaleness));
+    }
+
+    private List<ListingDTO> mapRows(List<Object[]> rows) {
+        return rows.stream()
+            .map(this::mapRecommendationToDTO)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Map a recommendation row to a DTO.
+     * Every query feeding this method returns the full listing, so no per-row lookup is needed.
+     */
+    private RecommendedListingDTO mapRecommendationToDTO(Object[] result) {
+        // Result columns: listing_id, owner_id, animal_id, description, price, status, created_at,
+        // title, species, breed, location, cf_score, liked_by_similar_users, content_score, final_score
+        return mapRecommendationToDTO(result,
+            ((Number) result[11]).longValue(),
+            ((Number) result[12]).longValue(),
+            ((Number) result[13]).longValue(),
+            ((Number) result[14]).longValue());
+    }
+
+    private RecommendedListingDTO mapRecommendationToDTO(Object[] result, long cfScore, long likedBySimilarUsers,
+                                                         long contentScore, long finalScore) {
+        return new RecommendedListingDTO(
+            ((Number) result[0]).longValue(),
+            ((Number) result[1]).longValue(),
+            ((Number) result[2]).longValue(),
+            (String) result[3],
+            (BigDecimal) result[4],
+            (String) result[5],
+            Timestamps.toLocalDateTime(result[6]),
+            (String) result[7],
+            (String) result[8],
+            (String) result[9],
+            (String) result[10],
+            cfScore,
+            likedBySimilarUsers,
+            contentScore,
+            finalScore
+        );
+    }
+
+    /**
+     * A favorite toggle (userId set) or a listing deactivation (userId null)
+     */
+    private record PendingChange(Long userId, Long listingId, Instant occurredAt) {
+    }
+}
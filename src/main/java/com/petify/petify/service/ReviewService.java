@@ -4,12 +4,16 @@ import com.petify.petify.domain.Review;
 import com.petify.petify.domain.User;
 import com.petify.petify.domain.UserReview;
 import com.petify.petify.dto.CreateReviewRequest;
+import com.petify.petify.dto.RatingSummaryDTO;
 import com.petify.petify.dto.ReviewDTO;
+import com.petify.petify.event.ReviewChangedEvent;
 import com.petify.petify.repo.ReviewRepository;
+import com.petify.petify.repo.UserRatingSummaryRepository;
 import com.petify.petify.repo.UserReviewRepository;
 import com.petify.petify.repo.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,11 +29,19 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserReviewRepository userReviewRepository;
     private final UserRepository userRepository;
+    private final UserRatingSummaryRepository ratingSummaryRepository;
+    private final ActivityRollupService activityRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ReviewService(ReviewRepository reviewRepository, UserReviewRepository userReviewRepository, UserRepository userRepository) {
+    public ReviewService(ReviewRepository reviewRepository, UserReviewRepository userReviewRepository, UserRepository userRepository,
+                         UserRatingSummaryRepository ratingSummaryRepository, ActivityRollupService activityRollupService,
+                         ApplicationEventPublisher eventPublisher) {
         this.reviewRepository = reviewRepository;
         this.userReviewRepository = userReviewRepository;
         this.userRepository = userRepository;
+        this.ratingSummaryRepository = ratingSummaryRepository;
+        this.activityRollupService = activityRollupService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -107,6 +119,11 @@ public class ReviewService {
         userReview = userReviewRepository.saveAndFlush(userReview);
         logger.info(" UserReview saved successfully");
 
+        ratingSummaryRepository.addRating(targetUserId, review.getRating(), 1);
+        activityRollupService.recordReviewCreated(reviewerId, review.getCreatedAt());
+        eventPublisher.publishEvent(new ReviewChangedEvent(ReviewChangedEvent.Type.CREATED,
+                review.getReviewId(), targetUserId, review.getRating()));
+
         // Create and return DTO
         ReviewDTO reviewDTO = new ReviewDTO(review);
         logger.info(" ReviewDTO created successfully");
@@ -150,6 +167,23 @@ public class ReviewService {
         return reviewDTOs;
     }
 
+    /**
+     * Get the rating summary of a user, read from user_rating_summaries without touching reviews
+     * @param targetUserId the user ID being reviewed
+     * @return review count, average rating and star histogram
+     */
+    @Transactional(readOnly = true)
+    public RatingSummaryDTO getRatingSummary(Long targetUserId) {
+        return ratingSummaryRepository.findById(targetUserId)
+                .map(RatingSummaryDTO::of)
+                .orElseGet(() -> {
+                    if (!userRepository.existsById(targetUserId)) {
+                        throw new RuntimeException("User not found");
+                    }
+                    return RatingSummaryDTO.empty(targetUserId);
+                });
+    }
+
     /**
      * Delete a review (soft delete - marks as deleted but keeps the record)
      * @param reviewId the review ID
@@ -175,10 +209,18 @@ public class ReviewService {
             throw new RuntimeException("You can only delete your own reviews");
         }
 
-        // Soft delete: mark as deleted instead of physically removing
-        review.setIsDeleted(true);
-        review.setUpdatedAt(LocalDateTime.now());
-        reviewRepository.save(review);
+        // Soft delete: mark as deleted instead of physically removing. Only the delete that flips
+        // the flag takes the rating out of the summary, so repeated deletes count once.
+        if (reviewRepository.softDelete(reviewId, LocalDateTime.now()) == 0) {
+            logger.info("Review {} was already deleted", reviewId);
+            return;
+        }
+
+        userReviewRepository.findById(reviewId).ifPresent(userReview -> {
+            ratingSummaryRepository.addRating(userReview.getTargetUserId(), review.getRating(), -1);
+            eventPublisher.publishEvent(new ReviewChangedEvent(ReviewChangedEvent.Type.DELETED,
+                    reviewId, userReview.getTargetUserId(), review.getRating()));
+        });
 
         logger.info("=== END deleteReview - SUCCESS ===");
     }
@@ -0,0 +1,102 @@
+package com.petify.petify.service;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.petify.petify.domain.UserType;
+import com.petify.petify.dto.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Issues and verifies the access tokens returned by login: HMAC-SHA256 signed JWTs carrying the
+ * user ID and type, so a request is authenticated without a database lookup. The type is the one
+ * at login time; a promotion or block shows in the next token, from login or /api/auth/refresh.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ISSUER = "petify";
+    private static final String ROLE_CLAIM = "role";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final NimbusJwtEncoder encoder;
+    private final NimbusJwtDecoder decoder;
+    private final Duration ttl;
+
+    public TokenService(@Value("${petify.auth.token.secret:}") String secret,
+                        @Value("${petify.auth.token.ttl:8h}") Duration ttl) {
+        SecretKey key = new SecretKeySpec(secretBytes(secret), "HmacSHA256");
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        this.decoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        this.decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER));
+        this.ttl = ttl;
+    }
+
+    /**
+     * Sign a token for the given user, valid for the configured TTL
+     */
+    public IssuedToken issue(Long userId, UserType userType) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuer(ISSUER)
+            .subject(userId.toString())
+            .claim(ROLE_CLAIM, userType.name())
+            .issuedAt(now)
+            .expiresAt(expiresAt)
+            .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        String token = encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+        return new IssuedToken(token, expiresAt);
+    }
+
+    /**
+     * Check signature, issuer and expiry and read the caller from the claims
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public AuthenticatedUser verify(String token) {
+        Jwt jwt = decoder.decode(token);
+        try {
+            return new AuthenticatedUser(Long.valueOf(jwt.getSubject()), UserType.valueOf(jwt.getClaimAsString(ROLE_CLAIM)));
+        } catch (RuntimeException e) {
+            throw new JwtException("Malformed token claims", e);
+        }
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            // Tokens then only survive until the next restart
+            logger.warn("petify.auth.token.secret is not set; using a random signing key");
+            byte[] random = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("petify.auth.token.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return bytes;
+    }
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,265 @@
+package com.petify.petify.service;
+
+import com.petify.petify.domain.ListingTrendingScore;
+import com.petify.petify.dto.TrendingListingDTO;
+import com.petify.petify.event.FavoriteChangedEvent;
+import com.petify.petify.event.ListingChangedEvent;
+import com.petify.petify.repo.ListingTrendingScoreRepository;
+import com.petify.petify.repo.PublicListingCardView;
+import com.petify.petify.repo.PublicListingRepository;
+import com.petify.petify.util.DecayingScores;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Trending listings: listing views and new favorites feed exponentially decaying per-listing
+ * scores held in memory (see {@link DecayingScores}). A scheduled ranking keeps the current top
+ * listings as a ready-made list, so /api/listings/trending does no work per request; a slower
+ * schedule checkpoints the scores to listing_trending_scores so a restart keeps the trend.
+ * <p>
+ * Favorite removals are not subtracted: the score measures recent interest, not current favorites.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    private final DecayingScores scores;
+    private final PublicListingRepository publicListingRepository;
+    private final ListingTrendingScoreRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double viewWeight;
+    private final double favoriteWeight;
+    private final double minScore;
+    private final int topSize;
+    private final Counter views;
+    private final Counter favorites;
+
+    // Replaced wholesale by every ranking
+    private volatile List<TrendingListingDTO> top = List.of();
+    // Set by every event, so a checkpoint without news does not rewrite the table
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    // Set once the last checkpoint is back in memory
+    private volatile boolean restored;
+
+    public TrendingService(PublicListingRepository publicListingRepository,
+                           ListingTrendingScoreRepository checkpointRepository,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${petify.trending.half-life:6h}") Duration halfLife,
+                           @Value("${petify.trending.weight.view:1}") double viewWeight,
+                           @Value("${petify.trending.weight.favorite:5}") double favoriteWeight,
+                           @Value("${petify.trending.min-score:0.05}") double minScore,
+                           @Value("${petify.trending.size:50}") int topSize) {
+        this.scores = new DecayingScores(halfLife, System.currentTimeMillis());
+        this.publicListingRepository = publicListingRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.viewWeight = viewWeight;
+        this.favoriteWeight = favoriteWeight;
+        this.minScore = minScore;
+        this.topSize = topSize;
+        this.views = Counter.builder("petify.trending.events")
+            .description("Events recorded for trending listings")
+            .tag("type", "view")
+            .register(meterRegistry);
+        this.favorites = Counter.builder("petify.trending.events")
+            .description("Events recorded for trending listings")
+            .tag("type", "favorite")
+            .register(meterRegistry);
+        Gauge.builder("petify.trending.tracked", scores, DecayingScores::size)
+            .description("Listings with a trending score")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The top trending listings, best first, as of the last ranking
+     */
+    public List<TrendingListingDTO> getTrending(int limit) {
+        List<TrendingListingDTO> current = top;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    /**
+     * Most listings {@link #getTrending} can return
+     */
+    public int getMaxSize() {
+        return topSize;
+    }
+
+    public void recordView(Long listingId) {
+        scores.add(listingId, viewWeight, System.currentTimeMillis());
+        views.increment();
+        markDirty();
+    }
+
+    /**
+     * Record a view that was answered without reading the listing, e.g. with 304. Only counted
+     * for a listing that already has a score, which a read of an existing active listing or a
+     * favorite gave it, so unknown IDs neither add scores nor take up entries.
+     */
+    public void recordUnverifiedView(Long listingId) {
+        if (scores.addIfPresent(listingId, viewWeight, System.currentTimeMillis())) {
+            views.increment();
+            markDirty();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        if (event.favorited()) {
+            scores.add(event.listingId(), favoriteWeight, System.currentTimeMillis());
+            favorites.increment();
+            markDirty();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.type() == ListingChangedEvent.Type.DELETED || !"ACTIVE".equals(event.listing().getStatus())) {
+            scores.remove(event.listing().getListingId());
+        }
+    }
+
+    /**
+     * Rank the scores and keep the cards of the best active listings. A few extra candidates are
+     * ranked so listings that went inactive since do not leave the list short.
+     */
+    @Scheduled(fixedDelayString = "${petify.trending.rank-delay-ms:10000}")
+    public void rank() {
+        try {
+            int candidates = topSize * 2;
+            PriorityQueue<Scored> best = new PriorityQueue<>(candidates + 1, Comparator.comparingDouble(Scored::score));
+            scores.forEach(System.currentTimeMillis(), (listingId, score) -> {
+                if (best.size() < candidates || score > best.peek().score()) {
+                    best.add(new Scored(listingId, score));
+                    if (best.size() > candidates) {
+                        best.poll();
+                    }
+                }
+            });
+            if (best.isEmpty()) {
+                top = List.of();
+                return;
+            }
+
+            Map<Long, PublicListingCardView> cards = publicListingRepository
+                .findActiveListingCardsByIds(best.stream().map(Scored::listingId).toList())
+                .stream()
+                .collect(Collectors.toMap(PublicListingCardView::getListingId, Function.identity()));
+            List<Scored> ranked = new ArrayList<>(best);
+            ranked.sort(Comparator.comparingDouble(Scored::score).reversed());
+            List<TrendingListingDTO> result = new ArrayList<>(topSize);
+            for (Scored scored : ranked) {
+                PublicListingCardView card = cards.get(scored.listingId());
+                if (card != null && result.size() < topSize) {
+                    result.add(new TrendingListingDTO(card, scored.score()));
+                }
+            }
+            top = List.copyOf(result);
+        } catch (Exception e) {
+            logger.error("Error ranking trending listings: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write the current scores to listing_trending_scores, replacing the previous checkpoint.
+     * Scores that have decayed to nothing are dropped first.
+     */
+    @Scheduled(fixedDelayString = "${petify.trending.checkpoint-delay-ms:300000}",
+               initialDelayString = "${petify.trending.checkpoint-delay-ms:300000}")
+    public void checkpoint() {
+        // Replacing the table before the saved scores are back in memory would wipe the trend
+        if (!restored && !restoreCheckpoint()) {
+            return;
+        }
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            int pruned = scores.prune(minScore, now);
+            scores.rebase(now);
+            LocalDateTime scoredAt = new Timestamp(now).toLocalDateTime();
+            List<ListingTrendingScore> rows = new ArrayList<>(scores.size());
+            scores.forEach(now, (listingId, score) -> rows.add(new ListingTrendingScore(listingId, score, scoredAt)));
+            transactionTemplate.executeWithoutResult(status -> {
+                checkpointRepository.deleteAllInBatch();
+                checkpointRepository.saveAll(rows);
+            });
+            logger.debug("Checkpointed {} trending scores ({} pruned)", rows.size(), pruned);
+        } catch (Exception e) {
+            dirty.set(true);
+            logger.error("Error checkpointing trending scores: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        restoreCheckpoint();
+        rank();
+    }
+
+    /**
+     * Add the checkpointed scores to the in-memory ones. Until this succeeds no checkpoint is
+     * written; a failed restore is retried by the next checkpoint, and events recorded meanwhile
+     * simply add up with the restored scores.
+     * @return whether the scores were restored
+     */
+    private synchronized boolean restoreCheckpoint() {
+        if (restored) {
+            return true;
+        }
+        try {
+            List<ListingTrendingScore> rows = checkpointRepository.findOfActiveListings();
+            for (ListingTrendingScore row : rows) {
+                scores.add(row.getListingId(), row.getScore(), Timestamp.valueOf(row.getScoredAt()).getTime());
+            }
+            restored = true;
+            logger.info("Restored {} trending scores", rows.size());
+            return true;
+        } catch (Exception e) {
+            logger.error("Error restoring trending scores, not checkpointing until they are restored: {}",
+                e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void checkpointOnShutdown() {
+        checkpoint();
+    }
+
+    // Read first, so concurrent events do not all store to the same cache line
+    private void markDirty() {
+        if (!dirty.get()) {
+            dirty.set(true);
+        }
+    }
+
+    private record Scored(long listingId, double score) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.petify.petify.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petify.petify.dto.UserRole;
+import com.petify.petify.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded cache of resolved user roles keyed by user ID. A miss costs one join query.
+ * Entries are invalidated where roles or block status change (owner promotion, block/unblock)
+ * and additionally expire after a while to pick up changes made outside the application.
+ */
+@Service
+public class UserRoleCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, UserRole> cache;
+
+    public UserRoleCache(UserRepository userRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${petify.user-roles.cache.max-size:10000}") long maxSize,
+                         @Value("${petify.user-roles.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userRoles");
+    }
+
+    /**
+     * Role of the given user, or empty if the user does not exist (absent users are not cached)
+     */
+    public Optional<UserRole> get(Long userId) {
+        return Optional.ofNullable(cache.get(userId, id -> userRepository.findUserRole(id).orElse(null)));
+    }
+
+    /**
+     * Drop the cached role of a user. Inside a transaction this happens after commit, so a
+     * concurrent reader cannot cache the old role again before the change is visible.
+     */
+    public void invalidate(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        } else {
+            cache.invalidate(userId);
+        }
+    }
+}
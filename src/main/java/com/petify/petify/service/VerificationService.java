@@ -1,56 +1,103 @@
 package com.petify.petify.service;
 
-import com.petify.petify.repo.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Verified users are the top 10 most active users. The leaderboard is recomputed from the
+ * activity rollups on a schedule into an immutable snapshot, so verification checks are a set
+ * lookup and never wait for the activity query.
+ */
 @Service
 public class VerificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(VerificationService.class);
 
-    @Autowired
-    private UserRepository userRepository;
+    private static final int VERIFIED_USERS = 10;
+
+    private final ActivityRollupService activityRollupService;
+    private final Timer refreshTimer;
+
+    // Replaced wholesale by each refresh; null until the first refresh succeeds
+    private volatile Leaderboard leaderboard;
+
+    public VerificationService(ActivityRollupService activityRollupService, MeterRegistry meterRegistry) {
+        this.activityRollupService = activityRollupService;
+        this.refreshTimer = Timer.builder("petify.verification.leaderboard.refresh")
+            .description("Time taken to recompute the verification leaderboard")
+            .register(meterRegistry);
+        Gauge.builder("petify.verification.leaderboard.age", this, VerificationService::leaderboardAgeSeconds)
+            .description("Age of the verification leaderboard snapshot")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
 
     /**
-     * Get top 10 most active users from the database
+     * Recompute the leaderboard. On failure the previous snapshot keeps being served.
      */
-    public List<Long> getTop10ActiveUserIds() {
-        logger.info("Fetching top 10 active users");
+    @Scheduled(fixedDelayString = "${petify.verification.leaderboard-refresh-ms:60000}")
+    public void refreshLeaderboard() {
         try {
-            List<Long> topUserIds = userRepository.findTop10ActiveUserIds();
-            logger.info("Found {} top active users", topUserIds.size());
-            return topUserIds;
+            List<Long> topUserIds = refreshTimer.recordCallable(
+                () -> activityRollupService.findTopActiveUserIds(VERIFIED_USERS));
+            leaderboard = new Leaderboard(List.copyOf(topUserIds), Set.copyOf(topUserIds), Instant.now());
+            logger.debug("Refreshed verification leaderboard with {} users", topUserIds.size());
         } catch (Exception e) {
-            logger.error("Error fetching top 10 active users: {}", e.getMessage(), e);
-            return List.of();
+            logger.error("Error refreshing verification leaderboard: {}", e.getMessage(), e);
         }
     }
 
+    /**
+     * Get top 10 most active users from the latest leaderboard snapshot
+     */
+    public List<Long> getTop10ActiveUserIds() {
+        Leaderboard current = leaderboard;
+        return current == null ? List.of() : current.topUserIds();
+    }
+
     /**
      * Check if a specific user is in the top 10 most active users
      */
     public boolean isUserVerified(Long userId) {
-        try {
-            List<Long> topUsers = getTop10ActiveUserIds();
-            boolean isVerified = topUsers.contains(userId);
-            logger.debug("User {} verification check: {}", userId, isVerified);
-            return isVerified;
-        } catch (Exception e) {
-            logger.error("Error checking verification status for user {}: {}", userId, e.getMessage());
-            return false;
+        Leaderboard current = leaderboard;
+        boolean isVerified = current != null && userId != null && current.members().contains(userId);
+        logger.debug("User {} verification check: {}", userId, isVerified);
+        return isVerified;
+    }
+
+    /**
+     * Check several users against the same leaderboard snapshot.
+     * The result keeps the order of {@code userIds}; duplicates and nulls are dropped.
+     */
+    public Map<Long, Boolean> areUsersVerified(Collection<Long> userIds) {
+        Leaderboard current = leaderboard;
+        Map<Long, Boolean> verified = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            if (userId != null) {
+                verified.put(userId, current != null && current.members().contains(userId));
+            }
         }
+        return verified;
     }
 
-    public UserRepository getUserRepository() {
-        return userRepository;
+    double leaderboardAgeSeconds() {
+        Leaderboard current = leaderboard;
+        return current == null ? Double.NaN : Duration.between(current.computedAt(), Instant.now()).toMillis() / 1000.0;
     }
 
-    public void setUserRepository(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    private record Leaderboard(List<Long> topUserIds, Set<Long> members, Instant computedAt) {
     }
 }
@@ -0,0 +1,159 @@
+package com.petify.petify.util;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Exponentially decaying scores per key, e.g. per listing. A score halves every {@code halfLife}
+ * without anything being rewritten: an event of weight w at time t is stored as
+ * {@code w * 2^((t - epoch) / halfLife)}, so older events weigh relatively less, and the current
+ * score is the stored sum scaled back by {@code 2^(-(now - epoch) / halfLife)}. Since every key is
+ * scaled by the same factor, stored sums rank keys correctly at any moment.
+ * <p>
+ * Writers never block each other: a key's sum is a {@link DoubleAdder}, which spreads concurrent
+ * adds to the same key over cells. The epoch moves forward in {@link #rebase} before the stored
+ * values grow out of double range.
+ */
+public final class DecayingScores {
+
+    // Move the epoch once stored values have grown by 2^40 (40 half-lives)
+    private static final double REBASE_AFTER_HALF_LIVES = 40;
+
+    private final double halfLifeMillis;
+    private volatile Generation generation;
+
+    public DecayingScores(Duration halfLife, long nowMillis) {
+        this.halfLifeMillis = halfLife.toMillis();
+        this.generation = new Generation(nowMillis, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Add an event of the given weight for a key. Also restores a checkpointed score: a score s
+     * at time t decays exactly like an event of weight s at t.
+     */
+    public void add(long key, double weight, long nowMillis) {
+        Generation current = generation;
+        DoubleAdder sum = current.sums().get(key);
+        if (sum == null) {
+            sum = current.sums().computeIfAbsent(key, k -> new DoubleAdder());
+        }
+        sum.add(weight * growth(current.epochMillis(), nowMillis));
+    }
+
+    /**
+     * Add an event for a key only if it already has a score
+     * @return whether the event was added
+     */
+    public boolean addIfPresent(long key, double weight, long nowMillis) {
+        Generation current = generation;
+        DoubleAdder sum = current.sums().get(key);
+        if (sum == null) {
+            return false;
+        }
+        sum.add(weight * growth(current.epochMillis(), nowMillis));
+        return true;
+    }
+
+    /**
+     * Current score of a key, 0 if it has none
+     */
+    public double get(long key, long nowMillis) {
+        Generation current = generation;
+        DoubleAdder sum = current.sums().get(key);
+        return sum == null ? 0 : sum.sum() / growth(current.epochMillis(), nowMillis);
+    }
+
+    public void remove(long key) {
+        generation.sums().remove(key);
+    }
+
+    public int size() {
+        return generation.sums().size();
+    }
+
+    /**
+     * Visit every key with its current score; concurrent adds may or may not be seen
+     */
+    public void forEach(long nowMillis, ScoreConsumer consumer) {
+        Generation current = generation;
+        double scale = growth(current.epochMillis(), nowMillis);
+        for (Map.Entry<Long, DoubleAdder> entry : current.sums().entrySet()) {
+            consumer.accept(entry.getKey(), entry.getValue().sum() / scale);
+        }
+    }
+
+    /**
+     * Drop keys whose score has decayed below {@code minScore}. An add that lands between reading
+     * a key's sum and removing it is put back. One that lands after the put-back, by a writer that
+     * fetched the sum before the removal, is lost: at most a few events of a key that had all but
+     * decayed away.
+     * @return the number of keys dropped
+     */
+    public int prune(double minScore, long nowMillis) {
+        Generation current = generation;
+        double threshold = minScore * growth(current.epochMillis(), nowMillis);
+        int pruned = 0;
+        for (Map.Entry<Long, DoubleAdder> entry : current.sums().entrySet()) {
+            DoubleAdder sum = entry.getValue();
+            double before = sum.sum();
+            if (before < threshold && current.sums().remove(entry.getKey(), sum)) {
+                pruned++;
+                double late = sum.sum() - before;
+                if (late != 0) {
+                    current.sums().computeIfAbsent(entry.getKey(), k -> new DoubleAdder()).add(late);
+                }
+            }
+        }
+        return pruned;
+    }
+
+    /**
+     * Move the epoch to now if the stored values have grown large. Adds that land in the old
+     * generation while it is being replaced are carried over by a second pass. An add by a
+     * writer that read the old generation but only adds after that second pass is lost; the
+     * window is a few instructions wide and opens once every 40 half-lives.
+     * Not safe to call concurrently with itself.
+     * @return whether the epoch moved
+     */
+    public boolean rebase(long nowMillis) {
+        Generation old = generation;
+        if ((nowMillis - old.epochMillis()) / halfLifeMillis < REBASE_AFTER_HALF_LIVES) {
+            return false;
+        }
+        double scale = growth(old.epochMillis(), nowMillis);
+        Map<Long, Double> copied = new HashMap<>();
+        ConcurrentHashMap<Long, DoubleAdder> sums = new ConcurrentHashMap<>();
+        for (Map.Entry<Long, DoubleAdder> entry : old.sums().entrySet()) {
+            double value = entry.getValue().sum();
+            copied.put(entry.getKey(), value);
+            DoubleAdder sum = new DoubleAdder();
+            sum.add(value / scale);
+            sums.put(entry.getKey(), sum);
+        }
+        generation = new Generation(nowMillis, sums);
+        // Writers that read the old generation just before the switch finish into it; those that
+        // finish after this pass are not carried over
+        for (Map.Entry<Long, DoubleAdder> entry : old.sums().entrySet()) {
+            double late = entry.getValue().sum() - copied.getOrDefault(entry.getKey(), 0.0);
+            if (late != 0) {
+                sums.computeIfAbsent(entry.getKey(), k -> new DoubleAdder()).add(late / scale);
+            }
+        }
+        return true;
+    }
+
+    private double growth(long epochMillis, long nowMillis) {
+        return Math.pow(2, (nowMillis - epochMillis) / halfLifeMillis);
+    }
+
+    @FunctionalInterface
+    public interface ScoreConsumer {
+        void accept(long key, double score);
+    }
+
+    private record Generation(long epochMillis, ConcurrentHashMap<Long, DoubleAdder> sums) {
+    }
+}
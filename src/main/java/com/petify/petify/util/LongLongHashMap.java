@@ -0,0 +1,113 @@
+package com.petify.petify.util;
+
+/**
+ * Open-addressing {@code long -> long} map used as a score accumulator (no boxing).
+ * Missing keys read as 0. Entries cannot be removed. Not thread-safe.
+ */
+public class LongLongHashMap {
+
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    public LongLongHashMap() {
+        this(16);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    public long get(long key) {
+        int mask = used.length - 1;
+        for (int i = LongObjectHashMap.slot(key, mask); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return 0;
+    }
+
+    public boolean containsKey(long key) {
+        int mask = used.length - 1;
+        for (int i = LongObjectHashMap.slot(key, mask); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(long key, long value) {
+        int i = insertionSlot(key);
+        values[i] = value;
+    }
+
+    /**
+     * Add {@code delta} to the value of {@code key} and return the new value
+     */
+    public long addTo(long key, long delta) {
+        int i = insertionSlot(key);
+        values[i] += delta;
+        return values[i];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int insertionSlot(long key) {
+        if ((size + 1) * 2 > used.length) {
+            resize(used.length * 2);
+        }
+        int mask = used.length - 1;
+        int i = LongObjectHashMap.slot(key, mask);
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        used[i] = true;
+        keys[i] = key;
+        size++;
+        return i;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int j = LongObjectHashMap.slot(oldKeys[i], mask);
+                while (used[j]) {
+                    j = (j + 1) & mask;
+                }
+                used[j] = true;
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long key, long value);
+    }
+}
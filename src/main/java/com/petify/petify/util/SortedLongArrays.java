@@ -0,0 +1,54 @@
+package com.petify.petify.util;
+
+import java.util.Arrays;
+
+/**
+ * Copy-on-write operations on sorted {@code long[]} sets. Inputs are never modified, so arrays
+ * can be shared with concurrent readers once published.
+ */
+public final class SortedLongArrays {
+
+    private SortedLongArrays() {
+    }
+
+    /**
+     * Return a copy of {@code sorted} containing {@code value}, or {@code sorted} itself if
+     * already present. A null array is treated as empty.
+     */
+    public static long[] insert(long[] sorted, long value) {
+        if (sorted == null) {
+            return new long[] {value};
+        }
+        int position = Arrays.binarySearch(sorted, value);
+        if (position >= 0) {
+            return sorted;
+        }
+        position = -position - 1;
+        long[] result = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(sorted, position, result, position + 1, sorted.length - position);
+        return result;
+    }
+
+    /**
+     * Return a copy of {@code sorted} without {@code value}, or {@code sorted} itself if absent
+     */
+    public static long[] remove(long[] sorted, long value) {
+        if (sorted == null) {
+            return null;
+        }
+        int position = Arrays.binarySearch(sorted, value);
+        if (position < 0) {
+            return sorted;
+        }
+        long[] result = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, position);
+        System.arraycopy(sorted, position + 1, result, position, sorted.length - position - 1);
+        return result;
+    }
+
+    public static boolean contains(long[] sorted, long value) {
+        return sorted != null && Arrays.binarySearch(sorted, value) >= 0;
+    }
+}
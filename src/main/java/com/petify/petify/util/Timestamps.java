@@ -0,0 +1,32 @@
+package com.petify.petify.util;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Conversions between the timestamps of native query rows, entities and PostgreSQL.
+ */
+public final class Timestamps {
+
+    private Timestamps() {
+    }
+
+    /**
+     * A timestamp column of a native query row, which the driver returns as either type
+     */
+    public static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    /**
+     * PostgreSQL keeps microseconds, rounding the rest. An in-memory copy of a saved value has to
+     * be rounded the same way to compare equal to what the queries return.
+     */
+    public static LocalDateTime roundToMicros(LocalDateTime value) {
+        return value.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+    }
+}
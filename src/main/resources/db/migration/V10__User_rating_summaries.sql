@@ -0,0 +1,35 @@
+BEGIN;
+
+-- Rating summary per reviewed user: review count, rating sum and a star histogram over the
+-- reviews that are not deleted. Kept in step by ReviewService in the same transaction as the
+-- review, so profiles show averages without reading reviews.
+CREATE TABLE user_rating_summaries (
+                                       user_id      BIGINT NOT NULL,
+                                       review_count INT    NOT NULL DEFAULT 0,
+                                       rating_sum   BIGINT NOT NULL DEFAULT 0,
+                                       rating_1     INT    NOT NULL DEFAULT 0,
+                                       rating_2     INT    NOT NULL DEFAULT 0,
+                                       rating_3     INT    NOT NULL DEFAULT 0,
+                                       rating_4     INT    NOT NULL DEFAULT 0,
+                                       rating_5     INT    NOT NULL DEFAULT 0,
+                                       CONSTRAINT user_rating_summaries_PK PRIMARY KEY (user_id),
+                                       CONSTRAINT user_rating_summaries_user_FK FOREIGN KEY (user_id)
+                                           REFERENCES users(user_id)
+                                           ON DELETE CASCADE
+);
+
+INSERT INTO user_rating_summaries (user_id, review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5)
+SELECT ur.target_user_id,
+       COUNT(*),
+       SUM(r.rating),
+       COUNT(*) FILTER (WHERE r.rating = 1),
+       COUNT(*) FILTER (WHERE r.rating = 2),
+       COUNT(*) FILTER (WHERE r.rating = 3),
+       COUNT(*) FILTER (WHERE r.rating = 4),
+       COUNT(*) FILTER (WHERE r.rating = 5)
+FROM user_reviews ur
+JOIN reviews r ON r.review_id = ur.review_id
+WHERE r.is_deleted = FALSE
+GROUP BY ur.target_user_id;
+
+COMMIT;
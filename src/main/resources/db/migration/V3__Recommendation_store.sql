@@ -0,0 +1,31 @@
+BEGIN;
+
+CREATE TABLE user_recommendation_runs (
+                                          user_id     BIGINT,
+                                          computed_at TIMESTAMP NOT NULL,
+                                          CONSTRAINT user_recommendation_runs_PK PRIMARY KEY (user_id),
+                                          CONSTRAINT user_recommendation_runs_user_FK FOREIGN KEY (user_id)
+                                              REFERENCES users(user_id)
+                                              ON DELETE CASCADE
+);
+
+CREATE TABLE user_recommendations (
+                                      user_id                BIGINT NOT NULL,
+                                      listing_id             BIGINT NOT NULL,
+                                      rank                   INT    NOT NULL,
+                                      cf_score               BIGINT NOT NULL,
+                                      liked_by_similar_users BIGINT NOT NULL,
+                                      content_score          BIGINT NOT NULL,
+                                      final_score            BIGINT NOT NULL,
+                                      CONSTRAINT user_recommendations_PK PRIMARY KEY (user_id, listing_id),
+                                      CONSTRAINT user_recommendations_run_FK FOREIGN KEY (user_id)
+                                          REFERENCES user_recommendation_runs(user_id)
+                                          ON DELETE CASCADE,
+                                      CONSTRAINT user_recommendations_listing_FK FOREIGN KEY (listing_id)
+                                          REFERENCES listings(listing_id)
+                                          ON DELETE CASCADE
+);
+
+CREATE INDEX user_recommendations_listing_IX ON user_recommendations (listing_id);
+
+COMMIT;
@@ -0,0 +1,33 @@
+BEGIN;
+
+-- Per-user, per-day counts of the windowed activity that feeds the verification leaderboard
+CREATE TABLE user_activity_daily (
+                                     user_id          BIGINT NOT NULL,
+                                     activity_date    DATE   NOT NULL,
+                                     listings_created INT    NOT NULL DEFAULT 0,
+                                     reviews_left     INT    NOT NULL DEFAULT 0,
+                                     CONSTRAINT user_activity_daily_PK PRIMARY KEY (user_id, activity_date),
+                                     CONSTRAINT user_activity_daily_user_FK FOREIGN KEY (user_id)
+                                         REFERENCES users(user_id)
+                                         ON DELETE CASCADE
+);
+
+-- Favorites count towards the leaderboard all-time, so they are kept as a running total
+CREATE TABLE user_activity_totals (
+                                      user_id         BIGINT NOT NULL,
+                                      favorites_saved INT    NOT NULL DEFAULT 0,
+                                      CONSTRAINT user_activity_totals_PK PRIMARY KEY (user_id),
+                                      CONSTRAINT user_activity_totals_user_FK FOREIGN KEY (user_id)
+                                          REFERENCES users(user_id)
+                                          ON DELETE CASCADE
+);
+
+-- Index-only scans for the 30-day leaderboard window
+CREATE INDEX user_activity_daily_date_IX
+    ON user_activity_daily (activity_date) INCLUDE (user_id, listings_created, reviews_left);
+CREATE INDEX user_activity_totals_favorites_IX
+    ON user_activity_totals (favorites_saved) INCLUDE (user_id) WHERE favorites_saved > 0;
+CREATE INDEX appointments_date_time_IX
+    ON appointments (date_time) INCLUDE (responsible_owner_id, status);
+
+COMMIT;
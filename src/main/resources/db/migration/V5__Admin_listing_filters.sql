@@ -0,0 +1,7 @@
+BEGIN;
+
+-- Keyset pages of the admin listings view, filtered by status or by owner
+CREATE INDEX listings_status_IX ON listings (status, listing_id);
+CREATE INDEX listings_owner_IX ON listings (owner_id, listing_id);
+
+COMMIT;
@@ -0,0 +1,7 @@
+BEGIN;
+
+-- Keyset pages of the active listing feeds: (created_at, listing_id) DESC, ACTIVE listings only
+CREATE INDEX listings_active_feed_IX
+    ON listings (created_at DESC, listing_id DESC) WHERE status = 'ACTIVE';
+
+COMMIT;
@@ -0,0 +1,49 @@
+BEGIN;
+
+-- Full-text document of a listing: pet name (weight A), breed and species (B), description (C).
+-- The 'simple' configuration does not stem, so prefix queries match what users type.
+ALTER TABLE listings ADD COLUMN search_document tsvector;
+
+CREATE FUNCTION listing_search_document(p_animal_id BIGINT, p_description TEXT) RETURNS tsvector
+    LANGUAGE sql STABLE AS $$
+SELECT setweight(to_tsvector('simple', coalesce(a.name, '')), 'A')
+           || setweight(to_tsvector('simple', coalesce(a.breed, '') || ' ' || coalesce(a.species, '')), 'B')
+           || setweight(to_tsvector('simple', coalesce(p_description, '')), 'C')
+FROM (SELECT 1) one
+         LEFT JOIN animals a ON a.animal_id = p_animal_id
+$$;
+
+CREATE FUNCTION listings_search_document_TRG() RETURNS trigger
+    LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_document := listing_search_document(NEW.animal_id, NEW.description);
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER listings_search_document_TRG
+    BEFORE INSERT OR UPDATE OF animal_id, description ON listings
+    FOR EACH ROW EXECUTE FUNCTION listings_search_document_TRG();
+
+-- Pets are not edited by the application, but keep listings in step if they are
+CREATE FUNCTION animals_search_document_TRG() RETURNS trigger
+    LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE listings
+    SET search_document = listing_search_document(animal_id, description)
+    WHERE animal_id = NEW.animal_id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER animals_search_document_TRG
+    AFTER UPDATE OF name, breed, species ON animals
+    FOR EACH ROW EXECUTE FUNCTION animals_search_document_TRG();
+
+UPDATE listings SET search_document = listing_search_document(animal_id, description);
+
+-- Searches only ever look at ACTIVE listings
+CREATE INDEX listings_search_document_IX
+    ON listings USING GIN (search_document) WHERE status = 'ACTIVE';
+
+COMMIT;
@@ -0,0 +1,21 @@
+BEGIN;
+
+-- Favorite count per listing, split over a few stripe rows so concurrent favorites of a hot
+-- listing update different rows; the count is the sum over stripes. A periodic merge folds the
+-- stripes back into stripe 0.
+CREATE TABLE listing_favorite_counts (
+                                         listing_id     BIGINT   NOT NULL,
+                                         stripe         SMALLINT NOT NULL,
+                                         favorite_count BIGINT   NOT NULL DEFAULT 0,
+                                         CONSTRAINT listing_favorite_counts_PK PRIMARY KEY (listing_id, stripe),
+                                         CONSTRAINT listing_favorite_counts_listing_FK FOREIGN KEY (listing_id)
+                                             REFERENCES listings(listing_id)
+                                             ON DELETE CASCADE
+);
+
+INSERT INTO listing_favorite_counts (listing_id, stripe, favorite_count)
+SELECT listing_id, 0, COUNT(*)
+FROM favorite_listings
+GROUP BY listing_id;
+
+COMMIT;
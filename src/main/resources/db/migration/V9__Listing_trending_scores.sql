@@ -0,0 +1,13 @@
+BEGIN;
+
+-- Checkpoint of the in-memory trending scores: each score as it was at scored_at, decayed
+-- further on load. Rewritten wholesale by every checkpoint; rows of listings that are gone or
+-- no longer active are skipped on load rather than cascaded.
+CREATE TABLE listing_trending_scores (
+                                         listing_id BIGINT           NOT NULL,
+                                         score      DOUBLE PRECISION NOT NULL,
+                                         scored_at  TIMESTAMP        NOT NULL,
+                                         CONSTRAINT listing_trending_scores_PK PRIMARY KEY (listing_id)
+);
+
+COMMIT;
@@ -0,0 +1,92 @@
+package com.petify.petify;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running instance, used to compare the platform-thread and
+ * virtual-threads modes (see README). Each of {@code concurrency} workers sends GETs back to back
+ * for the given duration; latencies after the warmup are reported as throughput, p50, p99 and max.
+ * Any status other than 200 counts as an error. Run by hand, not by {@code mvn test}.
+ * <p>
+ * Usage: {@code LoadGenerator <url> <concurrency> <seconds> [warmupSeconds]}
+ */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: LoadGenerator <url> <concurrency> <seconds> [warmupSeconds]");
+            System.exit(2);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = Integer.parseInt(args[1]);
+        int seconds = Integer.parseInt(args[2]);
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> results = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            results.add(workers.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < end) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (sent >= measureFrom) {
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - sent;
+                    }
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+        List<long[]> perWorker = new ArrayList<>(concurrency);
+        for (Future<long[]> result : results) {
+            perWorker.add(result.get());
+        }
+        workers.shutdown();
+
+        long[] latencies = perWorker.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        if (latencies.length == 0) {
+            System.out.printf("concurrency=%d no responses measured, errors=%d%n", concurrency, errors.get());
+            return;
+        }
+        System.out.printf("concurrency=%d req/s=%.0f p50=%.1fms p99=%.1fms max=%.1fms errors=%d%n",
+            concurrency,
+            latencies.length / (double) (seconds - warmupSeconds),
+            latencies[latencies.length / 2] / 1e6,
+            latencies[(int) (latencies.length * 0.99)] / 1e6,
+            latencies[latencies.length - 1] / 1e6,
+            errors.get());
+    }
+}
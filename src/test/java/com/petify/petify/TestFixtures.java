@@ -0,0 +1,130 @@
+package com.petify.petify;
+
+import com.petify.petify.domain.Admin;
+import com.petify.petify.domain.Client;
+import com.petify.petify.domain.Owner;
+import com.petify.petify.domain.User;
+import com.petify.petify.domain.UserType;
+import com.petify.petify.repo.AdminRepository;
+import com.petify.petify.repo.ClientRepository;
+import com.petify.petify.repo.OwnerRepository;
+import com.petify.petify.repo.UserRepository;
+import com.petify.petify.service.TokenService;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Users for the integration tests, as clients, owners or admins, all with password "pw". Test
+ * data is committed, so listeners that only run after commit see it, and {@link #deleteAll()}
+ * removes it after each test: the users created here and, in foreign key order, everything
+ * hanging off them (pets, listings, favorites, reviews, appointments, notifications), including
+ * rows the test created through the API. {@link #bearer(User)} gives the Authorization header that
+ * identifies a user to the API.
+ * <p>
+ * Import it with {@code @Import(TestFixtures.class)} and call {@link #deleteAll()} from
+ * {@code @AfterEach}.
+ */
+@TestComponent
+public class TestFixtures {
+
+    // Most specific first; each statement only removes rows nothing left still references
+    private static final List<String> DELETES = List.of(
+        """
+        DELETE FROM favorite_listings
+        WHERE client_id IN (:ids) OR listing_id IN (SELECT listing_id FROM listings WHERE owner_id IN (:ids))
+        """,
+        "DELETE FROM clinic_reviews WHERE review_id IN (SELECT review_id FROM reviews WHERE reviewer_id IN (:ids))",
+        """
+        DELETE FROM user_reviews
+        WHERE target_user_id IN (:ids) OR review_id IN (SELECT review_id FROM reviews WHERE reviewer_id IN (:ids))
+        """,
+        "DELETE FROM reviews WHERE reviewer_id IN (:ids)",
+        """
+        DELETE FROM health_records
+        WHERE animal_id IN (SELECT animal_id FROM animals WHERE owner_id IN (:ids))
+           OR appointment_id IN (SELECT appointment_id FROM appointments WHERE responsible_owner_id IN (:ids))
+        """,
+        """
+        DELETE FROM appointments
+        WHERE responsible_owner_id IN (:ids) OR animal_id IN (SELECT animal_id FROM animals WHERE owner_id IN (:ids))
+        """,
+        "DELETE FROM listings WHERE owner_id IN (:ids)",
+        "DELETE FROM animals WHERE owner_id IN (:ids)",
+        "DELETE FROM notifications WHERE user_id IN (:ids)",
+        "DELETE FROM admins WHERE user_id IN (:ids)",
+        "DELETE FROM owners WHERE user_id IN (:ids)",
+        "DELETE FROM clients WHERE user_id IN (:ids)",
+        "DELETE FROM users WHERE user_id IN (:ids)"
+    );
+
+    private final UserRepository userRepository;
+    private final ClientRepository clientRepository;
+    private final OwnerRepository ownerRepository;
+    private final AdminRepository adminRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TokenService tokenService;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    public TestFixtures(UserRepository userRepository, ClientRepository clientRepository,
+                        OwnerRepository ownerRepository, AdminRepository adminRepository,
+                        NamedParameterJdbcTemplate jdbcTemplate, TokenService tokenService) {
+        this.userRepository = userRepository;
+        this.clientRepository = clientRepository;
+        this.ownerRepository = ownerRepository;
+        this.adminRepository = adminRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenService = tokenService;
+    }
+
+    public Client newClient(String username) {
+        return clientRepository.save(new Client(newUser(username)));
+    }
+
+    public Owner newOwner(String username) {
+        return newOwner(newClient(username));
+    }
+
+    /**
+     * Make an existing client an owner as well
+     */
+    public Owner newOwner(Client client) {
+        return ownerRepository.save(new Owner(client.getUser()));
+    }
+
+    public Admin newAdmin(String username) {
+        return adminRepository.save(new Admin(newUser(username)));
+    }
+
+    /**
+     * "Bearer" and a token for the user with their current type, as login would issue it
+     */
+    public String bearer(User user) {
+        UserType userType = userRepository.findUserRole(user.getUserId()).orElseThrow().userType();
+        return "Bearer " + tokenService.issue(user.getUserId(), userType).token();
+    }
+
+    /**
+     * Remove the users created since the last call and everything that references them
+     */
+    public void deleteAll() {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Map<String, List<Long>> ids = Map.of("ids", List.copyOf(userIds));
+        for (String delete : DELETES) {
+            jdbcTemplate.update(delete, ids);
+        }
+        userIds.clear();
+    }
+
+    private User newUser(String username) {
+        User user = userRepository.save(new User(username, username + "@petify.test", "pw", "Test", "User"));
+        userIds.add(user.getUserId());
+        return user;
+    }
+}
@@ -0,0 +1,116 @@
+package com.petify.petify.api;
+
+import com.petify.petify.TestFixtures;
+import com.petify.petify.domain.Listing;
+import com.petify.petify.domain.Owner;
+import com.petify.petify.domain.Pet;
+import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.repo.PetRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The multi-get endpoints answer in request order with a single statement, however many IDs
+ * and distinct owners are asked for.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "petify.batch.max-ids=10"
+})
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class BatchGetQueryCountTests {
+
+    private static final long MISSING_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void multiGetsUseOneStatementAndKeepRequestOrder() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        List<Long> ownerIds = new ArrayList<>();
+        List<Long> petIds = new ArrayList<>();
+        List<Long> listingIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Owner owner = fixtures.newOwner("batch" + i + suffix);
+            Pet pet = petRepository.save(new Pet("Batch" + i, "MALE", null, null, "PET",
+                    "Species" + suffix, "Breed" + suffix, "City" + suffix, owner));
+            Listing listing = listingRepository.save(new Listing(owner, pet.getAnimalId(), BigDecimal.TEN, "Batch"));
+            ownerIds.add(owner.getUserId());
+            petIds.add(pet.getAnimalId());
+            listingIds.add(listing.getListingId());
+        }
+
+        Collections.reverse(ownerIds);
+        Collections.reverse(petIds);
+        Collections.reverse(listingIds);
+
+        expectBatch("/api/users", ownerIds, "$.items[*].userId");
+        expectBatch("/api/pets", petIds, "$.items[*].animalId");
+        expectBatch("/api/listings", listingIds, "$.items[*].listingId");
+    }
+
+    @Test
+    void batchSizeIsCapped() throws Exception {
+        String ids = "1,2,3,4,5,6,7,8,9,10,11";
+        for (String path : List.of("/api/users", "/api/pets", "/api/listings")) {
+            mockMvc.perform(get(path).param("ids", ids))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("At most 10 ids per request"));
+        }
+    }
+
+    private void expectBatch(String path, List<Long> ids, String idsPath) throws Exception {
+        // A duplicate is answered once, an unknown ID is reported as missing
+        List<Long> requested = new ArrayList<>(ids);
+        requested.add(MISSING_ID);
+        requested.add(ids.get(0));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(path).param("ids", requested.stream().map(String::valueOf).collect(Collectors.joining(","))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(idsPath, contains(ids.stream().map(Long::intValue).toArray())))
+                .andExpect(jsonPath("$.missing", contains(MISSING_ID)));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,204 @@
+package com.petify.petify.api;
+
+import com.petify.petify.TestFixtures;
+import com.petify.petify.domain.Client;
+import com.petify.petify.domain.Listing;
+import com.petify.petify.domain.Owner;
+import com.petify.petify.domain.Pet;
+import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.repo.PetRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional reads: the current ETag is answered with 304 and no body, any other tag with the
+ * body, and a committed write, including a favorite, moves the tag. Catalog versions only move
+ * after commit, which is why test data is committed rather than rolled back.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    private String suffix;
+    private Owner owner;
+    private Pet pet;
+    private Listing listing;
+
+    @BeforeEach
+    void createTestData() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = fixtures.newOwner("etagowner" + suffix);
+        pet = petRepository.save(new Pet("Etag", "MALE", null, null, "PET", "Dog", "Beagle", "City", owner));
+        listing = listingRepository.save(new Listing(owner, pet.getAnimalId(), BigDecimal.TEN, "Etag listing"));
+    }
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void currentTagIsNotModifiedAndOtherTagsGetTheBody() throws Exception {
+        for (String path : List.of("/api/public/listings", "/api/listings/" + listing.getListingId(),
+                "/api/pets/" + pet.getAnimalId(), "/api/reviews/" + owner.getUserId())) {
+            String etag = etagOf(get(path));
+
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""));
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, "\"unknown\", W/" + etag))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, "\"unknown\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(jsonPath("$").exists());
+        }
+    }
+
+    @Test
+    void listingWriteMovesTheListingTags() throws Exception {
+        String listingPath = "/api/listings/" + listing.getListingId();
+        String listingTag = etagOf(get(listingPath));
+        String feedTag = etagOf(get("/api/public/listings"));
+
+        mockMvc.perform(patch(listingPath + "/status")
+                        .header(HttpHeaders.AUTHORIZATION, fixtures.bearer(owner.getUser()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"SOLD\"}"))
+                .andExpect(status().isOk());
+
+        String newTag = etagOf(get(listingPath).header(HttpHeaders.IF_NONE_MATCH, listingTag));
+        assertThat(newTag).isNotEqualTo(listingTag);
+        mockMvc.perform(get(listingPath).header(HttpHeaders.IF_NONE_MATCH, listingTag))
+                .andExpect(jsonPath("$.status").value("SOLD"));
+        mockMvc.perform(get("/api/public/listings").header(HttpHeaders.IF_NONE_MATCH, feedTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(listingPath).header(HttpHeaders.IF_NONE_MATCH, newTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void favoriteMovesTheListingTags() throws Exception {
+        String listingPath = "/api/listings/" + listing.getListingId();
+        String listingTag = etagOf(get(listingPath));
+        String feedTag = etagOf(get("/api/public/listings"));
+        Client fan = fixtures.newClient("etagfan" + suffix);
+
+        mockMvc.perform(post("/api/favorites/" + listing.getListingId()).header(HttpHeaders.AUTHORIZATION, fixtures.bearer(fan.getUser())))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get(listingPath).header(HttpHeaders.IF_NONE_MATCH, listingTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.favoriteCount").value(1));
+        mockMvc.perform(get("/api/public/listings").header(HttpHeaders.IF_NONE_MATCH, feedTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[?(@.listingId == " + listing.getListingId() + ")].favoriteCount").value(1));
+    }
+
+    @Test
+    void petAndReviewWritesMoveTheirTags() throws Exception {
+        String petPath = "/api/pets/" + pet.getAnimalId();
+        String petTag = etagOf(get(petPath));
+        mockMvc.perform(post("/api/users/" + owner.getUserId() + "/pets")
+                        .header(HttpHeaders.AUTHORIZATION, fixtures.bearer(owner.getUser()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Second\", \"sex\": \"FEMALE\", \"type\": \"PET\", \"species\": \"Cat\"}"))
+                .andExpect(status().isCreated());
+        assertThat(etagOf(get(petPath).header(HttpHeaders.IF_NONE_MATCH, petTag))).isNotEqualTo(petTag);
+
+        String reviewsPath = "/api/reviews/" + owner.getUserId();
+        String reviewsTag = etagOf(get(reviewsPath));
+        Client reviewer = fixtures.newClient("etagreviewer" + suffix);
+        mockMvc.perform(post(reviewsPath)
+                        .header(HttpHeaders.AUTHORIZATION, fixtures.bearer(reviewer.getUser()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rating\": 5, \"comment\": \"Great\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get(reviewsPath).header(HttpHeaders.IF_NONE_MATCH, reviewsTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void notModifiedListingReadsStillCountAsViews() throws Exception {
+        String path = "/api/listings/" + listing.getListingId();
+        String etag = etagOf(get(path));
+        double before = views();
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertThat(views()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void notModifiedReadsOfUnknownListingsAreNotViews() throws Exception {
+        String etag = etagOf(get("/api/listings/" + listing.getListingId()));
+        double before = views();
+        double tracked = tracked();
+
+        // The tag is catalog-wide, so it answers 304 for any ID
+        mockMvc.perform(get("/api/listings/" + Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertThat(views()).isEqualTo(before);
+        assertThat(tracked()).isEqualTo(tracked);
+    }
+
+    // Performs the read, expecting a body, and returns its ETag
+    private String etagOf(MockHttpServletRequestBuilder request) throws Exception {
+        String etag = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+
+    private double views() {
+        return meterRegistry.get("petify.trending.events").tag("type", "view").counter().count();
+    }
+
+    private double tracked() {
+        return meterRegistry.get("petify.trending.tracked").gauge().value();
+    }
+}
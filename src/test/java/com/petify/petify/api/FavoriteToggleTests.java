@@ -0,0 +1,172 @@
+package com.petify.petify.api;
+
+import com.petify.petify.TestFixtures;
+import com.petify.petify.domain.Listing;
+import com.petify.petify.domain.Owner;
+import com.petify.petify.domain.Pet;
+import com.petify.petify.domain.User;
+import com.petify.petify.repo.ListingFavoriteCountRepository;
+import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.repo.PetRepository;
+import com.petify.petify.service.ListingFavoriteCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Adding and removing a favorite are idempotent, answer with the resulting state, and a repeat
+ * costs a single statement. Listing favorite counts follow every change. A grid of cards is
+ * checked with at most one query.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class FavoriteToggleTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private ListingFavoriteCountRepository favoriteCountRepository;
+
+    @Autowired
+    private ListingFavoriteCounter favoriteCounter;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void togglingIsIdempotentAndReturnsTheState() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Owner owner = fixtures.newOwner("favowner" + suffix);
+        Pet pet = petRepository.save(new Pet("Fav", "MALE", null, null, "PET", "Dog", "Beagle", "City", owner));
+        Listing listing = listingRepository.save(new Listing(owner, pet.getAnimalId(), BigDecimal.TEN, "Favorite me"));
+        User client = fixtures.newClient("fan" + suffix).getUser();
+
+        String path = "/api/favorites/" + listing.getListingId();
+        // First add inserts and bumps the rollup and the listing's count, the repeat is one
+        // statement that changes nothing
+        expect(post(path), client, status().isCreated(), true, 3);
+        expect(post(path), client, status().isOk(), true, 1);
+        expect(delete(path), client, status().isOk(), false, 3);
+        expect(delete(path), client, status().isOk(), false, 1);
+
+        mockMvc.perform(post("/api/favorites/" + Long.MAX_VALUE).header(HttpHeaders.AUTHORIZATION, fixtures.bearer(client)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Listing not found"));
+    }
+
+    @Test
+    void favoriteCountFollowsChangesAndSurvivesStripeMerges() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Owner owner = fixtures.newOwner("countowner" + suffix);
+        Pet pet = petRepository.save(new Pet("Count", "MALE", null, null, "PET", "Dog", "Beagle", "City", owner));
+        Listing listing = listingRepository.save(new Listing(owner, pet.getAnimalId(), BigDecimal.TEN, "Count me"));
+
+        String path = "/api/favorites/" + listing.getListingId();
+        for (int i = 0; i < 3; i++) {
+            User counter = fixtures.newClient("counter" + i + suffix).getUser();
+            mockMvc.perform(post(path).header(HttpHeaders.AUTHORIZATION, fixtures.bearer(counter)))
+                    .andExpect(status().isCreated());
+        }
+        User leaving = fixtures.newClient("leaving" + suffix).getUser();
+        mockMvc.perform(post(path).header(HttpHeaders.AUTHORIZATION, fixtures.bearer(leaving))).andExpect(status().isCreated());
+        mockMvc.perform(delete(path).header(HttpHeaders.AUTHORIZATION, fixtures.bearer(leaving))).andExpect(status().isOk());
+        expectFavoriteCount(listing, 3);
+
+        favoriteCounter.mergeStripes();
+        expectFavoriteCount(listing, 3);
+        assertThat(favoriteCountRepository.findAll())
+                .filteredOn(row -> row.getListingId().equals(listing.getListingId()))
+                .singleElement()
+                .satisfies(row -> assertThat(row.getStripe()).isEqualTo((short) 0));
+    }
+
+    @Test
+    void batchCheckAnswersInRequestOrderFromOneQuery() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Owner owner = fixtures.newOwner("batchowner" + suffix);
+        Long[] listingIds = new Long[3];
+        for (int i = 0; i < listingIds.length; i++) {
+            Pet pet = petRepository.save(new Pet("Fav" + i, "MALE", null, null, "PET", "Dog", "Beagle", "City", owner));
+            listingIds[i] = listingRepository.save(new Listing(owner, pet.getAnimalId(), BigDecimal.TEN, "Card")).getListingId();
+        }
+        User client = fixtures.newClient("batchfan" + suffix).getUser();
+        String authorization = fixtures.bearer(client);
+        mockMvc.perform(post("/api/favorites/" + listingIds[1]).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated());
+
+        String body = "{\"listingIds\": [" + listingIds[2] + ", " + listingIds[1] + ", " + listingIds[0] + "]}";
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // The first grid loads the client's favorites once, the next one is served from memory
+        for (int expectedStatements : new int[] {1, 0}) {
+            statistics.clear();
+            mockMvc.perform(post("/api/favorites/is-favorited:batch")
+                            .header(HttpHeaders.AUTHORIZATION, authorization)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json("{\"" + listingIds[2] + "\": false, \"" + listingIds[1] + "\": true, \""
+                            + listingIds[0] + "\": false}", JsonCompareMode.STRICT));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(expectedStatements);
+        }
+    }
+
+    private void expectFavoriteCount(Listing listing, long count) throws Exception {
+        mockMvc.perform(get("/api/listings/" + listing.getListingId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.favoriteCount").value(count));
+        mockMvc.perform(get("/api/listings/my-listings")
+                        .header(HttpHeaders.AUTHORIZATION, fixtures.bearer(listing.getOwner().getUser())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].favoriteCount").value(count));
+    }
+
+    private void expect(MockHttpServletRequestBuilder request, User client, ResultMatcher status,
+                        boolean favorited, int statements) throws Exception {
+        String authorization = fixtures.bearer(client);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status)
+                .andExpect(jsonPath("$.isFavorited").value(favorited));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+}
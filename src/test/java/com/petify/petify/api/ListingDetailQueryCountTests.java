@@ -0,0 +1,111 @@
+package com.petify.petify.api;
+
+import com.petify.petify.TestFixtures;
+import com.petify.petify.domain.Client;
+import com.petify.petify.domain.FavoriteListing;
+import com.petify.petify.domain.Listing;
+import com.petify.petify.domain.Owner;
+import com.petify.petify.domain.Pet;
+import com.petify.petify.domain.Review;
+import com.petify.petify.domain.UserReview;
+import com.petify.petify.repo.FavoriteListingRepository;
+import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.repo.PetRepository;
+import com.petify.petify.repo.ReviewRepository;
+import com.petify.petify.repo.UserReviewRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the SQL budget of /api/listings/{id}/detail. The parts are read on other threads in
+ * their own transactions, which is why test data is committed rather than rolled back.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ListingDetailQueryCountTests {
+
+    // Listing, pet, owner user, owner role, owner rating summary, review target check, reviews, favorite flag
+    private static final long EXPECTED_STATEMENTS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private FavoriteListingRepository favoriteListingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private UserReviewRepository userReviewRepository;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void detailUsesFixedNumberOfStatements() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Owner owner = fixtures.newOwner("detailowner" + suffix);
+        Client viewer = fixtures.newClient("detailviewer" + suffix);
+
+        Pet pet = petRepository.save(new Pet("Detail" + suffix, "FEMALE", null, null, "PET",
+                "Species" + suffix, "Breed" + suffix, "City" + suffix, owner));
+        Listing listing = listingRepository.save(new Listing(owner, pet.getAnimalId(), BigDecimal.TEN, "Detail listing"));
+        favoriteListingRepository.save(new FavoriteListing(viewer, listing));
+
+        // Review count must not change the number of statements
+        for (int i = 0; i < 3; i++) {
+            Client reviewer = fixtures.newClient("detailreviewer" + i + suffix);
+            Review review = reviewRepository.save(new Review(reviewer.getUser(), 4, "Great " + i));
+            userReviewRepository.save(new UserReview(review, owner.getUserId()));
+        }
+
+        String authorization = fixtures.bearer(viewer.getUser());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/listings/{id}/detail", listing.getListingId())
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.listing.listingId").value(listing.getListingId()))
+                .andExpect(jsonPath("$.pet.name").value("Detail" + suffix))
+                .andExpect(jsonPath("$.owner.userType").value("OWNER"))
+                .andExpect(jsonPath("$.ownerReviews.length()").value(3))
+                .andExpect(jsonPath("$.ownerVerified").isBoolean())
+                .andExpect(jsonPath("$.favorited").value(true));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(EXPECTED_STATEMENTS);
+    }
+}
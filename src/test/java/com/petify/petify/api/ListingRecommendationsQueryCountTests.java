@@ -0,0 +1,136 @@
+package com.petify.petify.api;
+
+import com.petify.petify.TestFixtures;
+import com.petify.petify.domain.Client;
+import com.petify.petify.domain.FavoriteListing;
+import com.petify.petify.domain.Listing;
+import com.petify.petify.domain.Owner;
+import com.petify.petify.domain.Pet;
+import com.petify.petify.repo.FavoriteListingRepository;
+import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.repo.PetRepository;
+import com.petify.petify.service.CollaborativeFilteringEngine;
+import com.petify.petify.service.ContentSimilarityIndex;
+import com.petify.petify.service.RecommendationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards /api/listings/recommendations against N+1 regressions: the number of JDBC statements
+ * must not depend on how many listings are recommended.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ListingRecommendationsQueryCountTests {
+
+    // Stored-run lookup plus either the stored rows or the hydration of the in-memory ranking
+    private static final long EXPECTED_STATEMENTS = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private FavoriteListingRepository favoriteListingRepository;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private CollaborativeFilteringEngine collaborativeFilteringEngine;
+
+    @Autowired
+    private ContentSimilarityIndex contentSimilarityIndex;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void recommendationsUseConstantNumberOfStatements() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Client viewer = fixtures.newClient("viewer" + suffix);
+        Client neighbour = fixtures.newClient("neighbour" + suffix);
+        Owner owner = fixtures.newOwner("owner" + suffix);
+
+        List<Listing> listings = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            listings.add(newListing(owner, "Pet" + i, suffix));
+        }
+
+        // The viewer and the neighbour share one liked listing; every other listing the
+        // neighbour liked becomes a collaborative-filtering candidate for the viewer.
+        favoriteListingRepository.save(new FavoriteListing(viewer, listings.get(0)));
+        for (Listing listing : listings) {
+            favoriteListingRepository.save(new FavoriteListing(neighbour, listing));
+        }
+
+        // The data was saved through the repositories, which publish no change events
+        collaborativeFilteringEngine.reload();
+        contentSimilarityIndex.reload();
+
+        Long viewerId = viewer.getUser().getUserId();
+        String authorization = fixtures.bearer(viewer.getUser());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Nothing stored yet: computed on the request path
+        statistics.clear();
+        expectRecommendations(authorization, listings.size() - 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(EXPECTED_STATEMENTS);
+
+        // Stored by the refresher: served from user_recommendations
+        recommendationService.refreshUser(viewerId);
+
+        statistics.clear();
+        expectRecommendations(authorization, listings.size() - 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(EXPECTED_STATEMENTS);
+    }
+
+    private void expectRecommendations(String authorization, int count) throws Exception {
+        mockMvc.perform(get("/api/listings/recommendations").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(count))
+                .andExpect(jsonPath("$[0].title").exists())
+                .andExpect(jsonPath("$[0].finalScore").exists());
+    }
+
+    private Listing newListing(Owner owner, String petName, String suffix) {
+        // Attributes are unique to this run so pre-existing listings never become content matches
+        Pet pet = petRepository.save(new Pet(petName, "MALE", null, null, "PET",
+                "Species" + suffix, "Breed" + suffix, "City" + suffix, owner));
+        return listingRepository.save(new Listing(owner, pet.getAnimalId(), BigDecimal.TEN, "Test listing"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.petify.petify.api;
+
+import com.petify.petify.TestFixtures;
+import com.petify.petify.domain.Listing;
+import com.petify.petify.domain.Owner;
+import com.petify.petify.domain.Pet;
+import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.repo.PetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Full-text search: every word is a prefix that must match, a match on the pet name outranks one
+ * in the description, equal ranks are newest first, only ACTIVE listings are found, words past
+ * the eighth are ignored and text without words is rejected.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ListingSearchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    // A word no other listing contains, so existing data does not show up in the results
+    private String word;
+    private Listing byName;
+    private Listing byDescription;
+    private Listing newerByDescription;
+
+    @BeforeEach
+    void createListings() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        word = "srch" + suffix.replaceAll("[^a-z]", "q");
+        Owner owner = fixtures.newOwner("searchowner" + suffix);
+
+        byName = newListing(owner, word, "Beagle", "Dog", "Friendly and calm");
+        byDescription = newListing(owner, "Rex", "Husky", "Dog", "Looks like " + word);
+        newerByDescription = newListing(owner, "Tom", "Persian", "Cat", "Also like " + word);
+        Listing sold = newListing(owner, "Kit", "Bengal", "Cat", "Sold " + word);
+        sold.setStatus("SOLD");
+        listingRepository.save(sold);
+    }
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void nameMatchesOutrankDescriptionMatchesThenNewestFirst() throws Exception {
+        mockMvc.perform(get("/api/listings/search").param("q", word))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].listingId").value(contains(
+                        byName.getListingId().intValue(),
+                        newerByDescription.getListingId().intValue(),
+                        byDescription.getListingId().intValue())));
+        mockMvc.perform(get("/api/listings/search").param("q", word).param("limit", "1"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void everyWordIsAPrefixThatMustMatch() throws Exception {
+        String prefix = word.substring(0, word.length() - 2).toUpperCase();
+        mockMvc.perform(get("/api/listings/search").param("q", prefix + ", beag!"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].listingId").value(contains(byName.getListingId().intValue())));
+        mockMvc.perform(get("/api/listings/search").param("q", prefix + " cat"))
+                .andExpect(jsonPath("$[*].listingId").value(contains(newerByDescription.getListingId().intValue())));
+        mockMvc.perform(get("/api/listings/search").param("q", prefix + " parrot"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void wordsPastTheEighthAreIgnored() throws Exception {
+        String eightTimes = String.join(" ", Collections.nCopies(8, word));
+        mockMvc.perform(get("/api/listings/search").param("q", eightTimes + " parrot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void textWithoutWordsIsRejected() throws Exception {
+        for (String text : new String[] {"", "  ", "!?-*"}) {
+            mockMvc.perform(get("/api/listings/search").param("q", text))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Search text must contain at least one letter or digit"));
+        }
+    }
+
+    private Listing newListing(Owner owner, String name, String breed, String species, String description) {
+        Pet pet = petRepository.save(new Pet(name, "MALE", null, null, "PET", species, breed, "City", owner));
+        return listingRepository.save(new Listing(owner, pet.getAnimalId(), BigDecimal.TEN, description));
+    }
+}
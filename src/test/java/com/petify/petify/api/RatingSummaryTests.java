@@ -0,0 +1,106 @@
+package com.petify.petify.api;
+
+import com.jayway.jsonpath.JsonPath;
+import com.petify.petify.TestFixtures;
+import com.petify.petify.domain.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A user's rating summary follows reviews being created and deleted, counts a repeated delete
+ * once, and is read with a single statement.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class RatingSummaryTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void summaryFollowsCreatedAndDeletedReviews() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User target = fixtures.newClient("rated" + suffix).getUser();
+        User first = fixtures.newClient("critic" + suffix).getUser();
+        User second = fixtures.newClient("fan" + suffix).getUser();
+
+        String summary = "/api/reviews/" + target.getUserId() + "/summary";
+        mockMvc.perform(get(summary))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviewCount").value(0))
+                .andExpect(jsonPath("$.averageRating").doesNotExist());
+
+        Long lowReviewId = createReview(first, target, 2);
+        createReview(second, target, 5);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(summary))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviewCount").value(2))
+                .andExpect(jsonPath("$.averageRating").value(3.5))
+                .andExpect(jsonPath("$.histogram.2").value(1))
+                .andExpect(jsonPath("$.histogram.5").value(1))
+                .andExpect(jsonPath("$.histogram.3").value(0));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(delete("/api/reviews/" + lowReviewId).header(HttpHeaders.AUTHORIZATION, fixtures.bearer(first)))
+                    .andExpect(status().isNoContent());
+        }
+        mockMvc.perform(get(summary))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviewCount").value(1))
+                .andExpect(jsonPath("$.averageRating").value(5.0))
+                .andExpect(jsonPath("$.histogram.2").value(0));
+        mockMvc.perform(get("/api/users/" + target.getUserId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ratingSummary.reviewCount").value(1))
+                .andExpect(jsonPath("$.ratingSummary.averageRating").value(5.0));
+
+        mockMvc.perform(get("/api/reviews/" + Long.MAX_VALUE + "/summary"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("User not found"));
+    }
+
+    private Long createReview(User reviewer, User target, int rating) throws Exception {
+        String response = mockMvc.perform(post("/api/reviews/" + target.getUserId())
+                        .header(HttpHeaders.AUTHORIZATION, fixtures.bearer(reviewer))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rating\": " + rating + ", \"comment\": \"Test\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(response, "$.reviewId")).longValue();
+    }
+}
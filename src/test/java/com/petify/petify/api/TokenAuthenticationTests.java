@@ -0,0 +1,158 @@
+package com.petify.petify.api;
+
+import com.jayway.jsonpath.JsonPath;
+import com.petify.petify.TestFixtures;
+import com.petify.petify.domain.User;
+import com.petify.petify.domain.UserType;
+import com.petify.petify.service.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login issues a token that identifies the caller without trusting X-User-Id, which alone no longer
+ * identifies anyone. Owner and admin endpoints, including actuator metrics, are decided by the role
+ * in the token, and a refreshed token picks up a promotion.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class TokenAuthenticationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void loginIssuesTokenForTheUser() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = fixtures.newClient("token" + suffix).getUser();
+
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"token" + suffix + "\",\"password\":\"pw\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isString())
+                .andExpect(jsonPath("$.expiresAt").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        String token = body.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+        assertThat(tokenService.verify(token).userId()).isEqualTo(user.getUserId());
+        assertThat(tokenService.verify(token).userType()).isEqualTo(UserType.CLIENT);
+    }
+
+    @Test
+    void adminEndpointsFollowTheTokenRole() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User client = fixtures.newClient("client" + suffix).getUser();
+        User admin = fixtures.newAdmin("admin" + suffix).getUser();
+
+        String adminToken = tokenService.issue(admin.getUserId(), UserType.ADMIN).token();
+        String clientToken = tokenService.issue(client.getUserId(), UserType.CLIENT).token();
+
+        mockMvc.perform(get("/api/users/admin/all").param("limit", "1")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+        // Claiming the admin's ID in the header does not help a client
+        mockMvc.perform(get("/api/users/admin/all").param("limit", "1")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header("X-User-Id", admin.getUserId()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/users/admin/all").param("limit", "1")
+                        .header("Authorization", "Bearer " + adminToken + "x"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("Invalid or expired token"));
+    }
+
+    @Test
+    void userIdHeaderWithoutATokenIsIgnored() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User client = fixtures.newClient("client" + suffix).getUser();
+
+        mockMvc.perform(get("/api/favorites").header("X-User-Id", client.getUserId()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/favorites/1").header("X-User-Id", client.getUserId()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/refresh"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/favorites").header(HttpHeaders.AUTHORIZATION, fixtures.bearer(client)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ownerEndpointsFollowTheTokenRoleAndRefreshPicksUpAPromotion() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User client = fixtures.newClient("client" + suffix).getUser();
+        String clientToken = fixtures.bearer(client);
+
+        mockMvc.perform(get("/api/listings/my-listings").header(HttpHeaders.AUTHORIZATION, clientToken))
+                .andExpect(status().isForbidden());
+
+        // Adding a first pet makes the client an owner, the token they hold still says CLIENT
+        String pet = mockMvc.perform(post("/api/users/" + client.getUserId() + "/pets")
+                        .header(HttpHeaders.AUTHORIZATION, clientToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Rex\", \"sex\": \"MALE\", \"type\": \"PET\", \"species\": \"Dog\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String listing = "{\"animalId\": " + JsonPath.read(pet, "$.animalId") + ", \"price\": 10, \"description\": \"Rex\"}";
+        mockMvc.perform(post("/api/listings")
+                        .header(HttpHeaders.AUTHORIZATION, clientToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(listing))
+                .andExpect(status().isForbidden());
+
+        String refreshed = mockMvc.perform(post("/api/auth/refresh").header(HttpHeaders.AUTHORIZATION, clientToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userType").value("OWNER"))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(post("/api/listings")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + JsonPath.read(refreshed, "$.token"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(listing))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void metricsNeedAnAdminTokenButHealthIsPublic() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User client = fixtures.newClient("client" + suffix).getUser();
+        User admin = fixtures.newAdmin("admin" + suffix).getUser();
+
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/jvm.memory.used")
+                        .header("Authorization", "Bearer " + tokenService.issue(client.getUserId(), UserType.CLIENT).token()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics/jvm.memory.used")
+                        .header("Authorization", "Bearer " + tokenService.issue(admin.getUserId(), UserType.ADMIN).token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("jvm.memory.used"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.petify.petify.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A connection beyond the cap waits and then fails; closing a connection frees its permit once,
+ * and a connection the target fails to open gives its permit back.
+ */
+class ConnectionLimitingDataSourceTests {
+
+    @Test
+    void connectionsBeyondTheCapTimeOutUntilOneIsClosed() throws Exception {
+        CountingDataSource target = new CountingDataSource();
+        ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(100));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limited.bindTo(registry);
+
+        Connection first = limited.getConnection();
+        assertThat(registry.get("petify.datasource.acquire.in-use").gauge().value()).isEqualTo(1);
+        assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(registry.get("petify.datasource.acquire.timeouts").counter().count()).isEqualTo(1);
+
+        first.close();
+        // A second close must not hand out a second permit
+        first.close();
+        assertThat(target.closed.get()).isEqualTo(2);
+        try (Connection second = limited.getConnection()) {
+            assertThat(second.isValid(1)).isTrue();
+            assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+        assertThat(target.opened.get()).isEqualTo(2);
+        assertThat(registry.get("petify.datasource.acquire.in-use").gauge().value()).isZero();
+    }
+
+    @Test
+    void failedConnectionsReturnTheirPermit() throws Exception {
+        CountingDataSource target = new CountingDataSource();
+        ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(100));
+
+        target.failing = true;
+        assertThatThrownBy(limited::getConnection).isInstanceOf(SQLException.class).hasMessage("Database down");
+        target.failing = false;
+        try (Connection connection = limited.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+    }
+
+    // Hands out stand-in connections that are always valid and count their closes
+    private static final class CountingDataSource extends AbstractDataSource {
+
+        final AtomicInteger opened = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        volatile boolean failing;
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failing) {
+                throw new SQLException("Database down");
+            }
+            opened.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        closed.incrementAndGet();
+                        yield null;
+                    }
+                    case "isValid" -> true;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.petify.petify.config;
+
+import com.petify.petify.domain.UserType;
+import com.petify.petify.service.TokenService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication overhead per request, target under 50 us: verifying a token alone, the whole
+ * filter with a token, and the filter for a request without one. Each filter run gets a fresh
+ * request, since the filter runs once per request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenAuthenticationBenchmark {
+
+    private TokenService tokenService;
+    private TokenAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService("benchmark-secret-benchmark-secret-0123", Duration.ofHours(8));
+        filter = new TokenAuthenticationFilter(tokenService, false);
+        token = tokenService.issue(1L, UserType.CLIENT).token();
+    }
+
+    @Benchmark
+    public Object verify() {
+        return tokenService.verify(token);
+    }
+
+    @Benchmark
+    public void filterWithToken(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/favorites");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), chain(blackhole));
+    }
+
+    @Benchmark
+    public void filterWithoutToken(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/favorites");
+        request.addHeader("X-User-Id", "1");
+        filter.doFilter(request, new MockHttpServletResponse(), chain(blackhole));
+    }
+
+    private static FilterChain chain(Blackhole blackhole) {
+        return (request, response) -> blackhole.consume(request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenAuthenticationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+package com.petify.petify.service;
+
+import com.petify.petify.TestFixtures;
+import com.petify.petify.domain.User;
+import com.petify.petify.domain.UserActivityDaily;
+import com.petify.petify.domain.UserActivityDailyId;
+import com.petify.petify.repo.UserActivityDailyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deleting a listing takes its creation back from the daily rollup, unless that day has already
+ * been pruned, in which case no row is written for it.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class ActivityRollupServiceTests {
+
+    @Autowired
+    private ActivityRollupService activityRollupService;
+
+    @Autowired
+    private UserActivityDailyRepository dailyRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void deletesOnlyTouchKeptDays() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = fixtures.newOwner("rollup" + suffix).getUser();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime pruned = now.minusDays(ActivityRollupService.RETENTION_DAYS + 5);
+
+        activityRollupService.recordListingCreated(owner.getUserId(), now);
+        activityRollupService.recordListingCreated(owner.getUserId(), now);
+        activityRollupService.recordListingDeleted(Long.MAX_VALUE, owner.getUserId(), now);
+        activityRollupService.recordListingDeleted(Long.MAX_VALUE, owner.getUserId(), pruned);
+
+        assertThat(dailyRepository.findById(new UserActivityDailyId(owner.getUserId(), now.toLocalDate())))
+                .map(UserActivityDaily::getListingsCreated)
+                .hasValue(1);
+        assertThat(dailyRepository.findById(new UserActivityDailyId(owner.getUserId(), pruned.toLocalDate())))
+                .isEmpty();
+    }
+}
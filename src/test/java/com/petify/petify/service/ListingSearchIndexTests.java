@@ -0,0 +1,161 @@
+package com.petify.petify.service;
+
+import com.petify.petify.TestFixtures;
+import com.petify.petify.domain.Listing;
+import com.petify.petify.domain.Owner;
+import com.petify.petify.domain.Pet;
+import com.petify.petify.dto.ListingDTO;
+import com.petify.petify.dto.ListingSearchCriteria;
+import com.petify.petify.event.ListingChangedEvent;
+import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.repo.PetRepository;
+import com.petify.petify.util.ListingCursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The search index must return the same listings, in feed order, as filtering the tables directly.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class ListingSearchIndexTests {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private ListingSearchIndex listingSearchIndex;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void searchMatchesFilteringTheTables() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Owner owner = fixtures.newOwner("search_" + suffix);
+
+        // Shared timestamps exercise the listing_id tie-break of the cursor
+        LocalDateTime createdAt = LocalDateTime.now().withNano(0);
+        List<Listing> listings = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Pet pet = petRepository.save(new Pet("Pet" + i, "MALE", null, null, i % 2 == 0 ? "PET" : "SERVICE",
+                "Species" + (i % 3) + suffix, i % 7 == 0 ? null : "Breed" + (i % 4) + suffix,
+                "City" + (i % 5) + suffix, owner));
+            Listing listing = new Listing(owner, pet.getAnimalId(), BigDecimal.valueOf(500 + i * 25L, 2),
+                "Search listing");
+            listing.setCreatedAt(createdAt.minusMinutes(i % 9));
+            if (i % 11 == 0) {
+                listing.setStatus("ARCHIVED");
+            }
+            listings.add(listingRepository.save(listing));
+        }
+
+        listingSearchIndex.reload();
+
+        List<ListingSearchCriteria> searches = List.of(
+            new ListingSearchCriteria("species1" + suffix, null, null, null, null, null, null),
+            new ListingSearchCriteria("Species0" + suffix, "BREED2" + suffix, null, null, null, null, null),
+            new ListingSearchCriteria(null, null, "service", "City3" + suffix, null, null, null),
+            new ListingSearchCriteria("Species2" + suffix, null, null, null,
+                new BigDecimal("7.00"), new BigDecimal("14.99"), null),
+            new ListingSearchCriteria(null, "Breed1" + suffix, null, null, null, null, createdAt.minusMinutes(4)),
+            new ListingSearchCriteria("Species9" + suffix, null, null, null, null, null, null));
+
+        for (ListingSearchCriteria criteria : searches) {
+            List<Row> expected = rows().stream().filter(matching(criteria))
+                .sorted(Comparator.comparing(Row::createdAt).thenComparing(Row::listingId).reversed())
+                .toList();
+
+            List<Long> found = new ArrayList<>();
+            ListingCursor cursor = null;
+            ListingSearchIndex.SearchHits hits;
+            do {
+                hits = listingSearchIndex.search(criteria, cursor, 4);
+                assertThat(hits.total()).isEqualTo(expected.size());
+                for (long listingId : hits.listingIds()) {
+                    found.add(listingId);
+                }
+                cursor = hits.next();
+            } while (cursor != null);
+
+            assertThat(found).containsExactlyElementsOf(expected.stream().map(Row::listingId).toList());
+            assertThat(hits.facets().species()).isEqualTo(counts(expected, Row::species));
+        }
+
+        // Archiving a listing takes it out of the results once the change is committed
+        Listing archived = listings.get(1);
+        listingSearchIndex.onListingChanged(new ListingChangedEvent(ListingChangedEvent.Type.STATUS_CHANGED,
+            new ListingDTO(archived.getListingId(), owner.getUserId(), archived.getAnimalId(),
+                archived.getDescription(), archived.getPrice(), "ARCHIVED", archived.getCreatedAt())));
+        ListingSearchCriteria bySpecies = new ListingSearchCriteria("Species1" + suffix, null, null, null,
+            null, null, null);
+        long[] remaining = listingSearchIndex.search(bySpecies, null, 100).listingIds();
+        assertThat(remaining).doesNotContain(archived.getListingId()).isNotEmpty();
+    }
+
+    private List<Row> rows() {
+        List<Object[]> rows = entityManager.createQuery("""
+                select l.listingId, l.createdAt, l.price, p.species, p.breed, p.type, p.locatedName
+                from Listing l join Pet p on p.animalId = l.animalId
+                where l.status = 'ACTIVE'
+                """, Object[].class).getResultList();
+        return rows.stream().map(row -> new Row((Long) row[0], (LocalDateTime) row[1], (BigDecimal) row[2],
+            (String) row[3], (String) row[4], (String) row[5], (String) row[6])).toList();
+    }
+
+    private static Predicate<Row> matching(ListingSearchCriteria criteria) {
+        return row -> equalsIgnoreCase(criteria.species(), row.species())
+            && equalsIgnoreCase(criteria.breed(), row.breed())
+            && equalsIgnoreCase(criteria.type(), row.type())
+            && equalsIgnoreCase(criteria.location(), row.location())
+            && (criteria.minPrice() == null || row.price().compareTo(criteria.minPrice()) >= 0)
+            && (criteria.maxPrice() == null || row.price().compareTo(criteria.maxPrice()) <= 0)
+            && (criteria.createdAfter() == null || row.createdAt().isAfter(criteria.createdAfter()));
+    }
+
+    private static boolean equalsIgnoreCase(String filter, String value) {
+        return filter == null || filter.equalsIgnoreCase(value);
+    }
+
+    private static Map<String, Integer> counts(List<Row> rows, Function<Row, String> attribute) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Row row : rows) {
+            if (attribute.apply(row) != null) {
+                counts.merge(attribute.apply(row), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private record Row(Long listingId, LocalDateTime createdAt, BigDecimal price,
+                       String species, String breed, String type, String location) {
+    }
+}
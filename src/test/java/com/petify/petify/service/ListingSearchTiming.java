@@ -0,0 +1,143 @@
+package com.petify.petify.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Timing of the listing full-text search at scale. Fills a scratch {@code bench} schema with
+ * {@code rows} synthetic listings (30 pet names, 20 breeds, 6 species, 10-word descriptions over a
+ * 40-word vocabulary, 90% ACTIVE) whose search documents are weighted like V7, adds the same
+ * partial GIN index, then runs the search query of {@code ListingRepository.searchActiveListings}
+ * under EXPLAIN ANALYZE and reports the median execution time of 7 runs per search text. The
+ * favorite count column is left out, it is one index lookup per returned row. The schema is
+ * dropped afterwards. Run by hand, not by {@code mvn test}.
+ * <p>
+ * Usage: {@code ListingSearchTiming <jdbcUrl> <user> <password> <rows> [searchText...]}
+ */
+public final class ListingSearchTiming {
+
+    private static final int RUNS = 7;
+    private static final int LIMIT = 20;
+
+    private static final List<String> DEFAULT_TEXTS = List.of(
+        "luna", "lab", "luna bea", "friendly garden", "fluffy husky max", "nomatch");
+
+    private static final Pattern EXECUTION_TIME = Pattern.compile("Execution Time: ([0-9.]+) ms");
+
+    private static final String[] SETUP = {
+        "DROP SCHEMA IF EXISTS bench CASCADE",
+        "CREATE SCHEMA bench",
+        """
+        CREATE TABLE bench.listings (listing_id BIGINT PRIMARY KEY, animal_id BIGINT, owner_id BIGINT,
+            status VARCHAR(20), price NUMERIC(12,2), description TEXT, created_at TIMESTAMP, search_document tsvector)
+        """,
+        """
+        INSERT INTO bench.listings
+        SELECT g, g, 1 + g % 5000, CASE WHEN g % 10 = 0 THEN 'ARCHIVED' ELSE 'ACTIVE' END, (g % 300) + 0.99,
+               d.description, now() - (g || ' seconds')::interval,
+               setweight(to_tsvector('simple', n.name), 'A')
+                   || setweight(to_tsvector('simple', b.breed || ' ' || s.species), 'B')
+                   || setweight(to_tsvector('simple', d.description), 'C')
+        FROM generate_series(1, ?) g
+        CROSS JOIN LATERAL (SELECT (ARRAY['Luna','Max','Bella','Charlie','Lucy','Cooper','Daisy','Milo','Rocky','Bailey',
+            'Sadie','Tucker','Molly','Bear','Maggie','Oliver','Lola','Duke','Zoe','Toby','Coco','Buddy','Ruby','Leo',
+            'Rosie','Jack','Stella','Teddy','Nala','Bentley'])[1 + (hashint4(g) & 1073741823) % 30] AS name) n
+        CROSS JOIN LATERAL (SELECT (ARRAY['Labrador','Beagle','Poodle','Bulldog','Boxer','Dachshund','Husky','Shepherd',
+            'Retriever','Terrier','Siamese','Persian','Bengal','Ragdoll','Sphynx','Maine','Cocker','Collie','Pug',
+            'Chihuahua'])[1 + (hashint4(g + 7) & 1073741823) % 20] AS breed) b
+        CROSS JOIN LATERAL (SELECT (ARRAY['Dog','Cat','Rabbit','Parrot','Hamster','Turtle'])
+            [1 + (hashint4(g + 13) & 1073741823) % 6] AS species) s
+        CROSS JOIN LATERAL (SELECT string_agg((ARRAY['friendly','calm','playful','trained','vaccinated','healthy','young',
+            'senior','gentle','energetic','loyal','quiet','house','garden','walks','weekend','sitting','boarding',
+            'grooming','puppy','kitten','family','children','apartment','experienced','handler','available','daily',
+            'evening','morning','care','feeding','medication','travel','adoption','rescue','small','large','fluffy',
+            'shorthair'])[1 + (hashint4(g * 31 + w) & 1073741823) % 40], ' ') AS description
+            FROM generate_series(1, 10) w) d
+        """,
+        "CREATE INDEX bench_search_IX ON bench.listings USING GIN (search_document) WHERE status = 'ACTIVE'",
+        "ANALYZE bench.listings"
+    };
+
+    private static final String SEARCH = """
+        EXPLAIN (ANALYZE, TIMING OFF)
+        SELECT l.listing_id, l.price, l.description, l.created_at, l.animal_id, l.owner_id
+        FROM bench.listings l
+        WHERE l.status = 'ACTIVE'
+          AND l.search_document @@ to_tsquery('simple', ?)
+        ORDER BY ts_rank_cd(l.search_document, to_tsquery('simple', ?)) DESC,
+                 l.created_at DESC,
+                 l.listing_id DESC
+        LIMIT ?
+        """;
+
+    private ListingSearchTiming() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 4) {
+            System.err.println("Usage: ListingSearchTiming <jdbcUrl> <user> <password> <rows> [searchText...]");
+            System.exit(2);
+        }
+        int rows = Integer.parseInt(args[3]);
+        List<String> texts = args.length > 4 ? Arrays.asList(args).subList(4, args.length) : DEFAULT_TEXTS;
+
+        try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2])) {
+            long start = System.nanoTime();
+            for (String sql : SETUP) {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    if (sql.contains("?")) {
+                        statement.setInt(1, rows);
+                    }
+                    statement.execute();
+                }
+            }
+            System.out.printf("generated %d listings in %d s%n", rows, (System.nanoTime() - start) / 1_000_000_000);
+
+            try {
+                for (String text : texts) {
+                    String query = ListingService.toPrefixQuery(text);
+                    double[] times = new double[RUNS];
+                    for (int i = 0; i < RUNS; i++) {
+                        times[i] = executionMillis(connection, query);
+                    }
+                    Arrays.sort(times);
+                    System.out.printf("%-30s %-40s median %.1f ms%n", "\"" + text + "\"", query, times[RUNS / 2]);
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP SCHEMA bench CASCADE");
+                }
+            }
+        }
+    }
+
+    private static double executionMillis(Connection connection, String query) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SEARCH)) {
+            statement.setString(1, query);
+            statement.setString(2, query);
+            statement.setInt(3, LIMIT);
+            List<String> plan = new ArrayList<>();
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    plan.add(result.getString(1));
+                }
+            }
+            for (String line : plan) {
+                Matcher matcher = EXECUTION_TIME.matcher(line);
+                if (matcher.find()) {
+                    return Double.parseDouble(matcher.group(1));
+                }
+            }
+            throw new IllegalStateException("No execution time in plan: " + plan);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.petify.petify.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Legacy plaintext rows keep working and are flagged for rehash, as are weaker hashes, while
+ * stronger hashes are kept; a full hashing queue turns callers away instead of queueing them.
+ */
+class PasswordHashingServiceTests {
+
+    @Test
+    void legacyAndOutdatedHashesMatchAndNeedRehash() {
+        PasswordHashingService hashing = new PasswordHashingService(new SimpleMeterRegistry(), 4, Duration.ZERO, 1, 8);
+        PasswordHashingService stronger = new PasswordHashingService(new SimpleMeterRegistry(), 5, Duration.ZERO, 1, 8);
+
+        assertThat(hashing.matches("hash_test_123", "hash_test_123")).isTrue();
+        assertThat(hashing.matches("wrong", "hash_test_123")).isFalse();
+        assertThat(hashing.needsRehash("hash_test_123")).isTrue();
+
+        String hash = hashing.encode("secret");
+        assertThat(hash).startsWith("{bcrypt}$2a$04$");
+        assertThat(hashing.matches("secret", hash)).isTrue();
+        assertThat(hashing.needsRehash(hash)).isFalse();
+        // Same password, but the cost changed since it was stored
+        assertThat(stronger.matches("secret", hash)).isTrue();
+        assertThat(stronger.needsRehash(hash)).isTrue();
+        // A weaker instance leaves the stronger hash alone
+        String strongerHash = stronger.encode("secret");
+        assertThat(hashing.matches("secret", strongerHash)).isTrue();
+        assertThat(hashing.needsRehash(strongerHash)).isFalse();
+    }
+
+    @Test
+    void fullQueueRejects() throws Exception {
+        // One thread and one queue slot: with the thread held and the slot taken, the next hash is turned away
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService hashing = new PasswordHashingService(registry, 4, Duration.ZERO, 1, 1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> held = callers.submit(() -> hashing.run(() -> {
+                running.countDown();
+                release.await();
+                return "held";
+            }));
+            assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<String> queued = callers.submit(() -> hashing.encode("queued"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (registry.get("petify.auth.password.queue").gauge().value() < 1) {
+                assertThat(System.nanoTime()).isLessThan(deadline);
+                Thread.sleep(1);
+            }
+
+            assertThatThrownBy(() -> hashing.encode("secret")).isInstanceOf(RejectedExecutionException.class);
+            assertThat(registry.get("petify.auth.password.rejected").counter().count()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(held.get(10, TimeUnit.SECONDS)).isEqualTo("held");
+            assertThat(hashing.matches("queued", queued.get(10, TimeUnit.SECONDS))).isTrue();
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void calibrationStaysWithinBounds() {
+        assertThat(PasswordHashingService.calibrate(Duration.ZERO)).isEqualTo(PasswordHashingService.MIN_COST);
+        assertThat(PasswordHashingService.costOf("$2a$11$abcdefghijklmnopqrstuu")).isEqualTo(11);
+        assertThat(PasswordHashingService.costOf("plaintext")).isEqualTo(-1);
+    }
+}
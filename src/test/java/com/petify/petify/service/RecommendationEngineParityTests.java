@@ -0,0 +1,111 @@
+package com.petify.petify.service;
+
+import com.petify.petify.TestFixtures;
+import com.petify.petify.domain.Client;
+import com.petify.petify.domain.FavoriteListing;
+import com.petify.petify.domain.Listing;
+import com.petify.petify.domain.Owner;
+import com.petify.petify.domain.Pet;
+import com.petify.petify.dto.RecommendedListingDTO;
+import com.petify.petify.repo.FavoriteListingRepository;
+import com.petify.petify.repo.ListingRepository;
+import com.petify.petify.repo.PetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-memory engine must rank recommendations exactly like the SQL query it replaces.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class RecommendationEngineParityTests {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private FavoriteListingRepository favoriteListingRepository;
+
+    @Autowired
+    private CollaborativeFilteringEngine collaborativeFilteringEngine;
+
+    @Autowired
+    private ContentSimilarityIndex contentSimilarityIndex;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void memoryAndSqlEnginesProduceIdenticalRankings() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Random random = new Random(42);
+
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            clients.add(fixtures.newClient("parity" + i + "_" + suffix));
+        }
+        // Two of the clients also sell, so their own listings must be filtered out
+        List<Owner> owners = List.of(fixtures.newOwner(clients.get(0)), fixtures.newOwner(clients.get(1)));
+
+        // Shared timestamps exercise the created_at and listing_id tie-breaks
+        LocalDateTime createdAt = LocalDateTime.now().withNano(0);
+        List<Listing> listings = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Pet pet = petRepository.save(new Pet("Pet" + i, "FEMALE", null, null, "PET",
+                "Species" + (i % 3) + suffix, "Breed" + (i % 5) + suffix, "City" + (i % 4) + suffix,
+                owners.get(i % 2)));
+            Listing listing = new Listing(owners.get(i % 2), pet.getAnimalId(), BigDecimal.ONE, "Parity listing");
+            listing.setCreatedAt(createdAt.minusMinutes(i % 7));
+            if (i % 9 == 0) {
+                listing.setStatus("ARCHIVED");
+            }
+            listings.add(listingRepository.save(listing));
+        }
+
+        // Most clients like more than the 10 recent listings that feed content scoring
+        for (Client client : clients) {
+            for (Listing listing : listings) {
+                if (random.nextInt(100) < 35) {
+                    favoriteListingRepository.save(new FavoriteListing(client, listing));
+                }
+            }
+        }
+
+        collaborativeFilteringEngine.reload();
+        contentSimilarityIndex.reload();
+
+        for (Client client : clients) {
+            Long userId = client.getUser().getUserId();
+            List<RecommendedListingDTO> expected = recommendationService.computeWithSql(userId);
+            List<RecommendedListingDTO> actual = recommendationService.computeInMemory(userId);
+
+            assertThat(expected).isNotEmpty();
+            assertThat(actual)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+        }
+    }
+}
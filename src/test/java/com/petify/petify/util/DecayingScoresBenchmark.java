@@ -0,0 +1,73 @@
+package com.petify.petify.util;
+
+import com.petify.petify.service.TrendingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event ingest of the trending scores under 16 concurrent writers, spread over many listings and
+ * concentrated on a few hot ones. {@code recordView} is the full path a listing view takes;
+ * {@code mergeBaseline} is the obvious alternative of a ConcurrentHashMap of doubles updated with
+ * merge, which locks the key's bin on every event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class DecayingScoresBenchmark {
+
+    @Param({"10000", "8"})
+    int listings;
+
+    private TrendingService trendingService;
+    private ConcurrentHashMap<Long, Double> baseline;
+
+    @Setup
+    public void setUp() {
+        // Ingest touches neither the repositories nor the transaction template
+        trendingService = new TrendingService(null, null, null, new SimpleMeterRegistry(),
+            Duration.ofHours(6), 1, 5, 0.05, 50);
+        baseline = new ConcurrentHashMap<>();
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public void recordView(Writer writer) {
+        trendingService.recordView((long) writer.random.nextInt(listings));
+    }
+
+    @Benchmark
+    public void mergeBaseline(Writer writer) {
+        baseline.merge((long) writer.random.nextInt(listings), 1.0, Double::sum);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DecayingScoresBenchmark.class.getSimpleName()).build()).run();
+    }
+}
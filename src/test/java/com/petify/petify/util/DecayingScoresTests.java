@@ -0,0 +1,69 @@
+package com.petify.petify.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Scores halve every half-life, moving the epoch changes no score, and pruning drops only the
+ * keys that have decayed away.
+ */
+class DecayingScoresTests {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @Test
+    void scoreHalvesEveryHalfLife() {
+        DecayingScores scores = new DecayingScores(Duration.ofHours(1), 0);
+        scores.add(1, 8, 0);
+        scores.add(2, 1, 2 * HOUR);
+
+        assertThat(scores.get(1, 0)).isCloseTo(8, within(1e-9));
+        assertThat(scores.get(1, HOUR)).isCloseTo(4, within(1e-9));
+        // The older, heavier event now ties with the fresh one
+        assertThat(scores.get(1, 3 * HOUR)).isCloseTo(1, within(1e-9));
+        assertThat(scores.get(2, 3 * HOUR)).isCloseTo(0.5, within(1e-9));
+        assertThat(scores.get(3, 3 * HOUR)).isZero();
+
+        assertThat(scores.addIfPresent(2, 1, 3 * HOUR)).isTrue();
+        assertThat(scores.get(2, 3 * HOUR)).isCloseTo(1.5, within(1e-9));
+        assertThat(scores.addIfPresent(3, 1, 3 * HOUR)).isFalse();
+        assertThat(scores.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rebaseKeepsScores() {
+        DecayingScores scores = new DecayingScores(Duration.ofHours(1), 0);
+        scores.add(1, 1, 100 * HOUR);
+        scores.add(2, 3, 101 * HOUR);
+
+        assertThat(scores.rebase(10 * HOUR)).isFalse();
+        assertThat(scores.rebase(102 * HOUR)).isTrue();
+        assertThat(scores.get(1, 102 * HOUR)).isCloseTo(0.25, within(1e-9));
+        assertThat(scores.get(2, 102 * HOUR)).isCloseTo(1.5, within(1e-9));
+
+        scores.add(1, 1, 102 * HOUR);
+        Map<Long, Double> visited = new HashMap<>();
+        scores.forEach(103 * HOUR, visited::put);
+        assertThat(visited).hasSize(2);
+        assertThat(visited.get(1L)).isCloseTo(0.625, within(1e-9));
+        assertThat(visited.get(2L)).isCloseTo(0.75, within(1e-9));
+    }
+
+    @Test
+    void pruneDropsDecayedKeys() {
+        DecayingScores scores = new DecayingScores(Duration.ofHours(1), 0);
+        scores.add(1, 1, 0);
+        scores.add(2, 1, 5 * HOUR);
+
+        assertThat(scores.prune(0.05, 5 * HOUR)).isEqualTo(1);
+        assertThat(scores.size()).isEqualTo(1);
+        assertThat(scores.get(1, 5 * HOUR)).isZero();
+        assertThat(scores.get(2, 5 * HOUR)).isCloseTo(1, within(1e-9));
+    }
+}